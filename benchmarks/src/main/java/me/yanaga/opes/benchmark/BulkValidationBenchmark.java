@@ -0,0 +1,105 @@
+package me.yanaga.opes.benchmark;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import me.yanaga.opes.Cpf;
+import me.yanaga.opes.CpfCnpj;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BulkValidationBenchmark {
+
+	@Param({ "10000" })
+	private int size;
+
+	private String[] cpfs;
+
+	private String[] cpfCnpjs;
+
+	private BitSet valid;
+
+	private BitSet cnpj;
+
+	private long[] digits;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		cpfs = new String[size];
+		cpfCnpjs = new String[size];
+		for (int i = 0; i < size; i++) {
+			cpfs[i] = Documentos.CPFS[random.nextInt(Documentos.CPFS.length)];
+			cpfCnpjs[i] = random.nextBoolean() ? cpfs[i] : Documentos.CNPJS[random.nextInt(Documentos.CNPJS.length)];
+			if (random.nextInt(10) == 0) {
+				cpfs[i] = cpfs[i].substring(1);
+				cpfCnpjs[i] = cpfCnpjs[i].substring(1);
+			}
+		}
+		valid = new BitSet(size);
+		cnpj = new BitSet(size);
+		digits = new long[size];
+	}
+
+	@Benchmark
+	public int cpfRowByRow() {
+		int count = 0;
+		for (String s : cpfs) {
+			try {
+				Cpf.of(s);
+				count++;
+			}
+			catch (IllegalArgumentException e) {
+				// invalid row
+			}
+		}
+		return count;
+	}
+
+	@Benchmark
+	public int cpfValidateAll() {
+		return Cpf.validateAll(cpfs, valid, digits);
+	}
+
+	@Benchmark
+	public int cpfCnpjValidateAll() {
+		return CpfCnpj.validateAll(cpfCnpjs, valid, cnpj, digits);
+	}
+
+}
@@ -0,0 +1,161 @@
+package me.yanaga.opes.benchmark;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import me.yanaga.opes.CertificadoDigital;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import javax.xml.crypto.dsig.CanonicalizationMethod;
+import javax.xml.crypto.dsig.DigestMethod;
+import javax.xml.crypto.dsig.Reference;
+import javax.xml.crypto.dsig.SignatureMethod;
+import javax.xml.crypto.dsig.SignedInfo;
+import javax.xml.crypto.dsig.Transform;
+import javax.xml.crypto.dsig.XMLSignatureFactory;
+import javax.xml.crypto.dsig.dom.DOMSignContext;
+import javax.xml.crypto.dsig.keyinfo.KeyInfo;
+import javax.xml.crypto.dsig.keyinfo.KeyInfoFactory;
+import javax.xml.crypto.dsig.keyinfo.X509Data;
+import javax.xml.crypto.dsig.spec.C14NMethodParameterSpec;
+import javax.xml.crypto.dsig.spec.TransformParameterSpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.cert.X509Certificate;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CertificadoDigitalBenchmark {
+
+	private static final String C14N_TRANSFORM_METHOD = "http://www.w3.org/TR/2001/REC-xml-c14n-20010315";
+
+	private static final char[] PASSWORD = { 'o', 'p', 'e', 's' };
+
+	@Param({ "1", "50" })
+	private int itens;
+
+	private CertificadoDigital certificadoDigital;
+
+	private Document template;
+
+	private Document unsigned;
+
+	private Document signed;
+
+	private byte[] xml;
+
+	private final ByteArrayOutputStream out = new ByteArrayOutputStream(1 << 16);
+
+	private PrivateKey privateKey;
+
+	private X509Certificate certificate;
+
+	@Setup
+	public void setup() {
+		certificadoDigital = Certificados.autoAssinado();
+		template = NotasFiscais.document(itens);
+		xml = NotasFiscais.xml(itens).getBytes(StandardCharsets.UTF_8);
+		signed = certificadoDigital.sign(NotasFiscais.document(itens));
+		try {
+			KeyStore keyStore = KeyStore.getInstance("pkcs12");
+			keyStore.load(new ByteArrayInputStream(certificadoDigital.toBytes()), PASSWORD);
+			String alias = keyStore.aliases().nextElement();
+			privateKey = (PrivateKey) keyStore.getKey(alias, PASSWORD);
+			certificate = (X509Certificate) keyStore.getCertificate(alias);
+		}
+		catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Setup(Level.Invocation)
+	public void cloneTemplate() {
+		unsigned = (Document) template.cloneNode(true);
+	}
+
+	@Benchmark
+	public Document sign() {
+		return certificadoDigital.sign(unsigned);
+	}
+
+	@Benchmark
+	public ByteArrayOutputStream signStream() {
+		out.reset();
+		certificadoDigital.sign(new ByteArrayInputStream(xml), out);
+		return out;
+	}
+
+	@Benchmark
+	public Document signPerCallSetup() throws Exception {
+		Element element = unsigned.getDocumentElement();
+		DOMSignContext dsc = new DOMSignContext(privateKey, element);
+		XMLSignatureFactory signatureFactory = XMLSignatureFactory.getInstance("DOM");
+
+		List<Transform> transformList = new LinkedList<>();
+		transformList.add(signatureFactory.newTransform(Transform.ENVELOPED, (TransformParameterSpec) null));
+		transformList.add(signatureFactory.newTransform(C14N_TRANSFORM_METHOD, (TransformParameterSpec) null));
+
+		Element child = (Element) element.getElementsByTagNameNS("*", "infNFe").item(0);
+		child.setIdAttribute("Id", true);
+		Reference reference = signatureFactory.newReference("#" + child.getAttribute("Id"),
+				signatureFactory.newDigestMethod(DigestMethod.SHA1, null), transformList, null, null);
+
+		SignedInfo signedInfo = signatureFactory.newSignedInfo(signatureFactory.newCanonicalizationMethod(
+				CanonicalizationMethod.INCLUSIVE, (C14NMethodParameterSpec) null), signatureFactory
+				.newSignatureMethod(SignatureMethod.RSA_SHA1, null), Collections.singletonList(reference));
+
+		KeyInfoFactory kif = signatureFactory.getKeyInfoFactory();
+		X509Data x509Data = kif.newX509Data(Collections.singletonList(certificate));
+		KeyInfo keyInfo = kif.newKeyInfo(Collections.singletonList(x509Data));
+
+		signatureFactory.newXMLSignature(signedInfo, keyInfo).sign(dsc);
+		return unsigned;
+	}
+
+	@Benchmark
+	public boolean validate() {
+		return certificadoDigital.validate(signed);
+	}
+
+}
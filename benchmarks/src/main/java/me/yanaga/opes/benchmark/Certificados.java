@@ -0,0 +1,74 @@
+package me.yanaga.opes.benchmark;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import me.yanaga.opes.CertificadoDigital;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+final class Certificados {
+
+	private static final char[] PASSWORD = { 'o', 'p', 'e', 's' };
+
+	private Certificados() {
+	}
+
+	static CertificadoDigital autoAssinado() {
+		try {
+			KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+			generator.initialize(2048);
+			KeyPair keyPair = generator.generateKeyPair();
+
+			X500Name name = new X500Name("CN=opes benchmark, O=opes, C=BR");
+			Instant now = Instant.now();
+			X509Certificate certificate = new JcaX509CertificateConverter().getCertificate(
+					new JcaX509v3CertificateBuilder(name, BigInteger.ONE, Date.from(now),
+							Date.from(now.plus(Duration.ofDays(365))), name, keyPair.getPublic())
+							.build(new JcaContentSignerBuilder("SHA256withRSA").build(keyPair.getPrivate())));
+
+			KeyStore keyStore = KeyStore.getInstance("pkcs12");
+			keyStore.load(null, null);
+			keyStore.setKeyEntry("opes", keyPair.getPrivate(), PASSWORD, new Certificate[] { certificate });
+			ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			keyStore.store(baos, PASSWORD);
+
+			return CertificadoDigital.of(new ByteArrayInputStream(baos.toByteArray()), PASSWORD);
+		}
+		catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
@@ -0,0 +1,114 @@
+package me.yanaga.opes.benchmark;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import me.yanaga.opes.Cns;
+import me.yanaga.opes.Gerador;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CnsLookupBenchmark {
+
+	private static final int LOOKUPS = 1 << 12;
+
+	@Param({ "1000", "1000000" })
+	private int size;
+
+	private Map<Cns, Integer> map;
+
+	private Cns[] hits;
+
+	private Cns[] misses;
+
+	private long[] digits;
+
+	private String[] strings;
+
+	private int index;
+
+	@Setup
+	public void setup() {
+		Gerador gerador = Gerador.of(42).unicos();
+		Cns[] cnss = Stream.concat(gerador.cnsDefinitivos(size / 2), gerador.cnsProvisorios(size - size / 2 + LOOKUPS))
+				.toArray(Cns[]::new);
+		map = new HashMap<>();
+		for (int i = 0; i < size; i++) {
+			map.put(cnss[i], i);
+		}
+		hits = new Cns[LOOKUPS];
+		misses = new Cns[LOOKUPS];
+		digits = new long[LOOKUPS];
+		strings = new String[LOOKUPS];
+		for (int i = 0; i < LOOKUPS; i++) {
+			Cns cns = cnss[(int) ((i * 2_654_435_761L) % size)];
+			hits[i] = Cns.ofLong(cns.toLong());
+			misses[i] = cnss[size + i];
+			digits[i] = cns.toLong();
+			strings[i] = String.format("%s", cns);
+		}
+	}
+
+	private int next() {
+		index = (index + 1) & (LOOKUPS - 1);
+		return index;
+	}
+
+	@Benchmark
+	public Integer hashMapHit() {
+		return map.get(hits[next()]);
+	}
+
+	@Benchmark
+	public Integer hashMapMiss() {
+		return map.get(misses[next()]);
+	}
+
+	@Benchmark
+	public Cns ofLong() {
+		return Cns.ofLong(digits[next()]);
+	}
+
+	@Benchmark
+	public Integer parseAndLookup() {
+		return map.get(Cns.of(strings[next()]));
+	}
+
+}
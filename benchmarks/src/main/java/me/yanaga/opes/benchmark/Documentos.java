@@ -0,0 +1,63 @@
+package me.yanaga.opes.benchmark;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+final class Documentos {
+
+	static final String[] CPFS = { "185.302.491-00", "297.276.931-72", "046.428.359-03", "023.750.169-47",
+			"855.826.525-90", "669.712.265-00", "016.462.272-12", "961.833.902-59", "631.186.702-82",
+			"572.129.702-63", "852.721.752-04", "842.507.392-87", "743.906.512-34", "935.828.032-87",
+			"845.691.902-00", "519.147.942-49" };
+
+	static final String[] CNPJS = { "19.861.350/0001-70", "23.144.170/0001-45", "46.868.328/0001-25",
+			"42.767.194/0001-03", "58.647.246/0001-30", "37.961.612/0001-50", "43.256.675/0001-09",
+			"24.152.237/0001-56", "60.871.888/0001-60", "66.845.982/0001-20", "06.074.614/0001-02",
+			"86.222.998/0001-94", "74.345.224/0001-71", "13.544.868/0001-02", "23.325.412/0001-05",
+			"21.319.627/0001-80" };
+
+	static final String[] CNSS = { "898 0000 0004 3208", "190 1297 5924 0018", "898 0010 3895 4985",
+			"100 1137 3692 0003", "898 0037 0143 0618", "898 0037 0141 8022", "898 0007 5288 5083",
+			"898 0037 0810 5771", "201 5971 3530 0005", "801 4343 6436 9875", "207 0157 8054 0004",
+			"209 8457 1935 0003", "209 8680 1539 0000", "801 4343 6341 1304", "706 8052 6767 3923",
+			"700 8059 0409 1181" };
+
+	static final String[] CEPS = { "87030-020", "01310-100", "20040-002", "30130-010", "40020-000",
+			"50030-230", "60060-440", "69005-070", "70040-010", "80010-000", "88010-400", "90010-150",
+			"64000-020", "66010-000", "78005-000", "79002-070" };
+
+	static final String[] EMAILS = { "edson@yanaga.me", "teste.domain@yanaga.me", "user123_321@yanaga.me",
+			"joao.silva@example.com.br", "maria+news@example.com", "contato@empresa.com.br",
+			"financeiro@empresa.com.br", "a.b.c.d@sub.domain.example.org", "nfe@sefaz.sp.gov.br",
+			"suporte@yanaga.me", "x@y.z", "very.long.local.part.for.testing@some.long.domain.name.com",
+			"first_last@example.net", "user@[192.168.0.1]", "o'neil@example.ie", "info@example.co" };
+
+	private Documentos() {
+	}
+
+	static String[] unmasked(String[] values) {
+		String[] result = new String[values.length];
+		for (int i = 0; i < values.length; i++) {
+			result[i] = values[i].replaceAll("\\D", "");
+		}
+		return result;
+	}
+
+}
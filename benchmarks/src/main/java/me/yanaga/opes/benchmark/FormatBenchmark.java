@@ -0,0 +1,148 @@
+package me.yanaga.opes.benchmark;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import me.yanaga.opes.Cep;
+import me.yanaga.opes.Cnpj;
+import me.yanaga.opes.Cns;
+import me.yanaga.opes.Cpf;
+import me.yanaga.opes.DocumentWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.Formatter;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FormatBenchmark {
+
+	private final Cpf[] cpfs = new Cpf[16];
+
+	private final Cnpj[] cnpjs = new Cnpj[16];
+
+	private final Cns[] cnss = new Cns[16];
+
+	private final Cep[] ceps = new Cep[16];
+
+	private final StringBuilder sb = new StringBuilder();
+
+	private final char[] chars = new char[32];
+
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+
+	private final DocumentWriter writer = DocumentWriter.to(buffer);
+
+	private int index;
+
+	@Setup
+	public void setup() {
+		for (int i = 0; i < 16; i++) {
+			cpfs[i] = Cpf.of(Documentos.CPFS[i]);
+			cnpjs[i] = Cnpj.of(Documentos.CNPJS[i]);
+			cnss[i] = Cns.of(Documentos.CNSS[i]);
+			ceps[i] = Cep.of(Documentos.CEPS[i]);
+		}
+	}
+
+	private int next() {
+		index = (index + 1) & 15;
+		return index;
+	}
+
+	@Benchmark
+	public String cpfFormat() {
+		return String.format("%s", cpfs[next()]);
+	}
+
+	@Benchmark
+	public String cpfFormatAlternate() {
+		return String.format("%#15s", cpfs[next()]);
+	}
+
+	@Benchmark
+	public String cpfToString() {
+		return cpfs[next()].toString();
+	}
+
+	@Benchmark
+	public String cnpjFormat() {
+		return String.format("%s", cnpjs[next()]);
+	}
+
+	@Benchmark
+	public String cnsFormat() {
+		return String.format("%s", cnss[next()]);
+	}
+
+	@Benchmark
+	public String cepFormat() {
+		return String.format("%s", ceps[next()]);
+	}
+
+	@Benchmark
+	public StringBuilder cpfAppendTo() {
+		sb.setLength(0);
+		return cpfs[next()].appendTo(sb, true);
+	}
+
+	@Benchmark
+	public StringBuilder cnpjAppendTo() {
+		sb.setLength(0);
+		return cnpjs[next()].appendTo(sb, true);
+	}
+
+	@Benchmark
+	public char[] cpfWriteTo() {
+		cpfs[next()].writeTo(chars, 0, true);
+		return chars;
+	}
+
+	@Benchmark
+	public ByteBuffer cpfExport() {
+		if (buffer.remaining() < 32) {
+			buffer.clear();
+		}
+		writer.write(cpfs[next()]).newLine();
+		return buffer;
+	}
+
+	@Benchmark
+	public StringBuilder cpfFormatToReusedFormatter() {
+		sb.setLength(0);
+		new Formatter(sb).format("%-20s", cpfs[next()]);
+		return sb;
+	}
+
+}
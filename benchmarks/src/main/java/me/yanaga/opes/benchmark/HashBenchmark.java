@@ -0,0 +1,156 @@
+package me.yanaga.opes.benchmark;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import me.yanaga.opes.Cep;
+import me.yanaga.opes.Cnpj;
+import me.yanaga.opes.Cns;
+import me.yanaga.opes.Cpf;
+import me.yanaga.opes.CpfCnpj;
+import me.yanaga.opes.Email;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HashBenchmark {
+
+	private Map<Cpf, Integer> cpfMap;
+
+	private Map<Cnpj, Integer> cnpjMap;
+
+	private Map<Cns, Integer> cnsMap;
+
+	private Map<Cep, Integer> cepMap;
+
+	private Map<CpfCnpj, Integer> cpfCnpjMap;
+
+	private Map<Email, Integer> emailMap;
+
+	private Cpf[] cpfs;
+
+	private Cnpj[] cnpjs;
+
+	private Cns[] cnss;
+
+	private Cep[] ceps;
+
+	private CpfCnpj[] cpfCnpjs;
+
+	private Email[] emails;
+
+	private int index;
+
+	@Setup
+	public void setup() {
+		cpfMap = map(Documentos.CPFS, Cpf::of);
+		cnpjMap = map(Documentos.CNPJS, Cnpj::of);
+		cnsMap = map(Documentos.CNSS, Cns::of);
+		cepMap = map(Documentos.CEPS, Cep::of);
+		cpfCnpjMap = map(Documentos.CNPJS, CpfCnpj::of);
+		emailMap = map(Documentos.EMAILS, Email::of);
+		cpfs = keys(Documentos.CPFS, Cpf::of, new Cpf[16]);
+		cnpjs = keys(Documentos.CNPJS, Cnpj::of, new Cnpj[16]);
+		cnss = keys(Documentos.CNSS, Cns::of, new Cns[16]);
+		ceps = keys(Documentos.CEPS, Cep::of, new Cep[16]);
+		cpfCnpjs = keys(Documentos.CNPJS, CpfCnpj::of, new CpfCnpj[16]);
+		emails = keys(Documentos.EMAILS, Email::of, new Email[16]);
+	}
+
+	private static <T> Map<T, Integer> map(String[] values, Function<String, T> parser) {
+		Map<T, Integer> map = new HashMap<>();
+		for (int i = 0; i < values.length; i++) {
+			map.put(parser.apply(values[i]), i);
+		}
+		return map;
+	}
+
+	private static <T> T[] keys(String[] values, Function<String, T> parser, T[] keys) {
+		for (int i = 0; i < values.length; i++) {
+			keys[i] = parser.apply(values[i]);
+		}
+		return keys;
+	}
+
+	private int next() {
+		index = (index + 1) & 15;
+		return index;
+	}
+
+	@Benchmark
+	public Integer cpfLookup() {
+		return cpfMap.get(cpfs[next()]);
+	}
+
+	@Benchmark
+	public Integer cnpjLookup() {
+		return cnpjMap.get(cnpjs[next()]);
+	}
+
+	@Benchmark
+	public Integer cnsLookup() {
+		return cnsMap.get(cnss[next()]);
+	}
+
+	@Benchmark
+	public Integer cepLookup() {
+		return cepMap.get(ceps[next()]);
+	}
+
+	@Benchmark
+	public Integer cpfCnpjLookup() {
+		return cpfCnpjMap.get(cpfCnpjs[next()]);
+	}
+
+	@Benchmark
+	public Integer emailLookup() {
+		return emailMap.get(emails[next()]);
+	}
+
+	@Benchmark
+	public int cpfHashCode() {
+		return cpfs[next()].hashCode();
+	}
+
+	@Benchmark
+	public boolean cpfCnpjEquals() {
+		int i = next();
+		return cpfCnpjs[i].equals(cpfCnpjs[(i + 1) & 15]);
+	}
+
+}
@@ -0,0 +1,67 @@
+package me.yanaga.opes.benchmark;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.StringReader;
+
+final class NotasFiscais {
+
+	private NotasFiscais() {
+	}
+
+	static String xml(int itens) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("<NFe xmlns=\"http://www.portalfiscal.inf.br/nfe\">");
+		sb.append("<infNFe Id=\"NFe35150819861350000170550010000000011000000019\" versao=\"3.10\">");
+		sb.append("<ide><cUF>35</cUF><cNF>00000001</cNF><natOp>VENDA</natOp><mod>55</mod><serie>1</serie>");
+		sb.append("<nNF>1</nNF><dhEmi>2015-08-01T10:00:00-03:00</dhEmi><tpNF>1</tpNF></ide>");
+		sb.append("<emit><CNPJ>19861350000170</CNPJ><xNome>Empresa Emitente Ltda</xNome>");
+		sb.append("<enderEmit><xLgr>Rua Teste</xLgr><nro>100</nro><xBairro>Centro</xBairro><cMun>3550308</cMun>");
+		sb.append("<xMun>Sao Paulo</xMun><UF>SP</UF><CEP>01310100</CEP></enderEmit><IE>123456789</IE></emit>");
+		sb.append("<dest><CPF>18530249100</CPF><xNome>Consumidor Final</xNome></dest>");
+		for (int i = 1; i <= itens; i++) {
+			sb.append("<det nItem=\"").append(i).append("\"><prod><cProd>").append(i).append("</cProd>");
+			sb.append("<xProd>Produto de teste numero ").append(i).append("</xProd><NCM>84713012</NCM>");
+			sb.append("<CFOP>5102</CFOP><uCom>UN</uCom><qCom>1.0000</qCom><vUnCom>10.00</vUnCom>");
+			sb.append("<vProd>10.00</vProd></prod><imposto><ICMS><ICMS00><orig>0</orig><CST>00</CST>");
+			sb.append("<vBC>10.00</vBC><pICMS>18.00</pICMS><vICMS>1.80</vICMS></ICMS00></ICMS></imposto></det>");
+		}
+		sb.append("<total><ICMSTot><vNF>").append(itens * 10).append(".00</vNF></ICMSTot></total>");
+		sb.append("</infNFe></NFe>");
+		return sb.toString();
+	}
+
+	static Document document(int itens) {
+		try {
+			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+			factory.setNamespaceAware(true);
+			return factory.newDocumentBuilder().parse(new InputSource(new StringReader(xml(itens))));
+		}
+		catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
@@ -0,0 +1,134 @@
+package me.yanaga.opes.benchmark;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import me.yanaga.opes.Cep;
+import me.yanaga.opes.Cnpj;
+import me.yanaga.opes.Cns;
+import me.yanaga.opes.Cpf;
+import me.yanaga.opes.CpfCnpj;
+import me.yanaga.opes.Email;
+import me.yanaga.opes.ParseCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParseBenchmark {
+
+	private static final String[] CPFS_UNMASKED = Documentos.unmasked(Documentos.CPFS);
+
+	private static final String[] CNPJS_UNMASKED = Documentos.unmasked(Documentos.CNPJS);
+
+	private static final String[] CNSS_UNMASKED = Documentos.unmasked(Documentos.CNSS);
+
+	private static final String[] CEPS_UNMASKED = Documentos.unmasked(Documentos.CEPS);
+
+	private static final ParseCache<Cnpj> CNPJ_CACHE = ParseCache.of(Cnpj::of, 1024);
+
+	private static final ParseCache<CpfCnpj> CPF_CNPJ_CACHE = ParseCache.of(CpfCnpj::of, 1024);
+
+	private int index;
+
+	private int next() {
+		index = (index + 1) & 15;
+		return index;
+	}
+
+	@Benchmark
+	public Cpf cpfMasked() {
+		return Cpf.of(Documentos.CPFS[next()]);
+	}
+
+	@Benchmark
+	public Cpf cpfUnmasked() {
+		return Cpf.of(CPFS_UNMASKED[next()]);
+	}
+
+	@Benchmark
+	public Cnpj cnpjMasked() {
+		return Cnpj.of(Documentos.CNPJS[next()]);
+	}
+
+	@Benchmark
+	public Cnpj cnpjUnmasked() {
+		return Cnpj.of(CNPJS_UNMASKED[next()]);
+	}
+
+	@Benchmark
+	public Cnpj cnpjCached() {
+		return CNPJ_CACHE.parse(Documentos.CNPJS[next()]);
+	}
+
+	@Benchmark
+	public Cns cnsMasked() {
+		return Cns.of(Documentos.CNSS[next()]);
+	}
+
+	@Benchmark
+	public Cns cnsUnmasked() {
+		return Cns.of(CNSS_UNMASKED[next()]);
+	}
+
+	@Benchmark
+	public Cep cepMasked() {
+		return Cep.of(Documentos.CEPS[next()]);
+	}
+
+	@Benchmark
+	public Cep cepUnmasked() {
+		return Cep.of(CEPS_UNMASKED[next()]);
+	}
+
+	@Benchmark
+	public CpfCnpj cpfCnpjFromCpf() {
+		return CpfCnpj.of(Documentos.CPFS[next()]);
+	}
+
+	@Benchmark
+	public CpfCnpj cpfCnpjFromCnpj() {
+		return CpfCnpj.of(Documentos.CNPJS[next()]);
+	}
+
+	@Benchmark
+	public CpfCnpj cpfCnpjCached() {
+		return CPF_CNPJ_CACHE.parse(Documentos.CNPJS[next()]);
+	}
+
+	@Benchmark
+	public Email email() {
+		return Email.of(Documentos.EMAILS[next()]);
+	}
+
+}
@@ -0,0 +1,101 @@
+package me.yanaga.opes.benchmark;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import me.yanaga.opes.CertificadoDigital;
+import me.yanaga.opes.CpfCnpj;
+import me.yanaga.opes.OpesCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializationBenchmark {
+
+	private CpfCnpj cpf;
+
+	private CpfCnpj cnpj;
+
+	private CertificadoDigital certificadoDigital;
+
+	private final ByteBuffer buffer = ByteBuffer.allocate(16);
+
+	@Setup
+	public void setup() {
+		cpf = CpfCnpj.of(Documentos.CPFS[0]);
+		cnpj = CpfCnpj.of(Documentos.CNPJS[0]);
+		certificadoDigital = Certificados.autoAssinado();
+	}
+
+	private static Object roundTrip(Object value) throws IOException, ClassNotFoundException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+			oos.writeObject(value);
+		}
+		try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()))) {
+			return ois.readObject();
+		}
+	}
+
+	@Benchmark
+	public Object cpfCnpjFromCpf() throws IOException, ClassNotFoundException {
+		return roundTrip(cpf);
+	}
+
+	@Benchmark
+	public Object cpfCnpjFromCnpj() throws IOException, ClassNotFoundException {
+		return roundTrip(cnpj);
+	}
+
+	@Benchmark
+	public Object cpfCnpjCodec() {
+		buffer.clear();
+		OpesCodec.write(buffer, cnpj);
+		buffer.flip();
+		return OpesCodec.read(buffer);
+	}
+
+	@Benchmark
+	public Object certificadoDigital() throws IOException, ClassNotFoundException {
+		return roundTrip(certificadoDigital);
+	}
+
+}
@@ -0,0 +1,110 @@
+package me.yanaga.opes.benchmark;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import me.yanaga.opes.Cep;
+import me.yanaga.opes.Cnpj;
+import me.yanaga.opes.Cpf;
+import me.yanaga.opes.CpfCnpj;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SortBenchmark {
+
+	@Param({ "10000" })
+	private int size;
+
+	private Cpf[] cpfs;
+
+	private Cnpj[] cnpjs;
+
+	private Cep[] ceps;
+
+	private CpfCnpj[] cpfCnpjs;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		cpfs = shuffled(Documentos.CPFS, Cpf::of, new Cpf[size], random);
+		cnpjs = shuffled(Documentos.CNPJS, Cnpj::of, new Cnpj[size], random);
+		ceps = shuffled(Documentos.CEPS, Cep::of, new Cep[size], random);
+		String[] mixed = new String[Documentos.CPFS.length + Documentos.CNPJS.length];
+		System.arraycopy(Documentos.CPFS, 0, mixed, 0, Documentos.CPFS.length);
+		System.arraycopy(Documentos.CNPJS, 0, mixed, Documentos.CPFS.length, Documentos.CNPJS.length);
+		cpfCnpjs = shuffled(mixed, CpfCnpj::of, new CpfCnpj[size], random);
+	}
+
+	private static <T> T[] shuffled(String[] values, Function<String, T> parser, T[] array, Random random) {
+		for (int i = 0; i < array.length; i++) {
+			array[i] = parser.apply(values[random.nextInt(values.length)]);
+		}
+		return array;
+	}
+
+	@Benchmark
+	public Cpf[] sortCpfs() {
+		Cpf[] copy = cpfs.clone();
+		Arrays.sort(copy);
+		return copy;
+	}
+
+	@Benchmark
+	public Cnpj[] sortCnpjs() {
+		Cnpj[] copy = cnpjs.clone();
+		Arrays.sort(copy);
+		return copy;
+	}
+
+	@Benchmark
+	public Cep[] sortCeps() {
+		Cep[] copy = ceps.clone();
+		Arrays.sort(copy);
+		return copy;
+	}
+
+	@Benchmark
+	public CpfCnpj[] sortCpfCnpjs() {
+		CpfCnpj[] copy = cpfCnpjs.clone();
+		Arrays.sort(copy);
+		return copy;
+	}
+
+}
@@ -0,0 +1,277 @@
+package me.yanaga.opes;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.LongConsumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+abstract class AbstractDocumentColumn<T> implements Iterable<T>, Closeable {
+
+	static final int DEFAULT_CAPACITY = 1024;
+
+	private static final int MAGIC = 0x4F504553;
+
+	private static final int HEADER_SIZE = 16;
+
+	private static final int SIZE_OFFSET = 8;
+
+	private static final int MAX_CAPACITY = (Integer.MAX_VALUE - HEADER_SIZE) / Long.BYTES;
+
+	private final int length;
+
+	private final FileChannel channel;
+
+	private ByteBuffer buffer;
+
+	private int size;
+
+	private boolean closed;
+
+	AbstractDocumentColumn(int length, int initialCapacity) {
+		checkArgument(initialCapacity >= 0 && initialCapacity <= MAX_CAPACITY);
+		this.length = length;
+		this.channel = null;
+		this.buffer = allocate(Math.max(initialCapacity, 1));
+		this.size = 0;
+	}
+
+	AbstractDocumentColumn(int length, Path file) {
+		checkNotNull(file);
+		this.length = length;
+		try {
+			this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+					StandardOpenOption.WRITE);
+			try {
+				long fileSize = channel.size();
+				if (fileSize == 0) {
+					this.buffer = map(DEFAULT_CAPACITY);
+					buffer.putInt(0, MAGIC);
+					buffer.putInt(4, length);
+					this.size = 0;
+				}
+				else {
+					checkArgument(fileSize >= HEADER_SIZE && fileSize <= HEADER_SIZE + (long) MAX_CAPACITY * Long.BYTES,
+							"Arquivo inv\u00e1lido: %s.", file);
+					this.buffer = map((int) ((fileSize - HEADER_SIZE) / Long.BYTES));
+					long storedSize = buffer.getLong(SIZE_OFFSET);
+					checkArgument(buffer.getInt(0) == MAGIC && buffer.getInt(4) == length
+							&& storedSize >= 0 && storedSize <= capacity(), "Arquivo inv\u00e1lido: %s.", file);
+					this.size = (int) storedSize;
+					for (int i = 0; i < size; i++) {
+						long digits = buffer.getLong(offset(i));
+						checkArgument(Digits.isInRange(digits, length) && isValid(digits),
+								"Arquivo inv\u00e1lido: %s.", file);
+					}
+				}
+			}
+			catch (RuntimeException | IOException ex) {
+				channel.close();
+				throw ex;
+			}
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	abstract long toLong(T document);
+
+	abstract T of(long digits);
+
+	abstract boolean isValid(long digits);
+
+	public void append(T document) {
+		checkNotNull(document);
+		checkOpen();
+		doAppend(toLong(document));
+	}
+
+	public void append(long digits) {
+		checkArgument(Digits.isInRange(digits, length) && isValid(digits));
+		checkOpen();
+		doAppend(digits);
+	}
+
+	public long getLong(int index) {
+		checkElementIndex(index, size);
+		return buffer.getLong(offset(index));
+	}
+
+	public T get(int index) {
+		return of(getLong(index));
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void clear() {
+		checkOpen();
+		size = 0;
+		if (channel != null) {
+			buffer.putLong(SIZE_OFFSET, 0);
+		}
+	}
+
+	public void forEachLong(LongConsumer action) {
+		checkNotNull(action);
+		ByteBuffer buffer = this.buffer;
+		for (int i = 0, n = size; i < n; i++) {
+			action.accept(buffer.getLong(offset(i)));
+		}
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return new Iterator<T>() {
+
+			private int index;
+
+			@Override
+			public boolean hasNext() {
+				return index < size;
+			}
+
+			@Override
+			public T next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return get(index++);
+			}
+
+		};
+	}
+
+	public void writeTo(Path file) {
+		checkNotNull(file);
+		try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			header.putInt(MAGIC).putInt(length).putLong(size).flip();
+			ByteBuffer data = buffer.duplicate();
+			data.limit(offset(size)).position(HEADER_SIZE);
+			while (header.hasRemaining() || data.hasRemaining()) {
+				out.write(new ByteBuffer[] { header, data });
+			}
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	public void flush() {
+		if (channel != null) {
+			((MappedByteBuffer) buffer).force();
+		}
+	}
+
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		if (channel != null) {
+			flush();
+			try {
+				channel.close();
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}
+	}
+
+	private void checkOpen() {
+		checkState(!closed, "Coluna encerrada.");
+	}
+
+	private void doAppend(long digits) {
+		if (size == capacity()) {
+			grow();
+		}
+		buffer.putLong(offset(size), digits);
+		size++;
+		if (channel != null) {
+			buffer.putLong(SIZE_OFFSET, size);
+		}
+	}
+
+	private void grow() {
+		int capacity = capacity();
+		checkArgument(capacity < MAX_CAPACITY, "Capacidade m\u00e1xima excedida.");
+		int newCapacity = (int) Math.min(Math.max(DEFAULT_CAPACITY, (long) capacity << 1), MAX_CAPACITY);
+		if (channel != null) {
+			buffer = map(newCapacity);
+		}
+		else {
+			ByteBuffer newBuffer = allocate(newCapacity);
+			ByteBuffer data = buffer.duplicate();
+			data.limit(offset(size)).position(HEADER_SIZE);
+			newBuffer.position(HEADER_SIZE);
+			newBuffer.put(data);
+			newBuffer.clear();
+			buffer = newBuffer;
+		}
+	}
+
+	private int capacity() {
+		return (buffer.capacity() - HEADER_SIZE) / Long.BYTES;
+	}
+
+	private ByteBuffer map(int capacity) {
+		try {
+			return channel.map(FileChannel.MapMode.READ_WRITE, 0, offset(capacity)).order(ByteOrder.LITTLE_ENDIAN);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	private static ByteBuffer allocate(int capacity) {
+		return ByteBuffer.allocateDirect(offset(capacity)).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	private static int offset(int index) {
+		return HEADER_SIZE + index * Long.BYTES;
+	}
+
+}
@@ -0,0 +1,165 @@
+package me.yanaga.opes;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongConsumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+abstract class AbstractDocumentMap<T, V> extends AbstractMap<T, V> implements ConcurrentMap<T, V> {
+
+	private final ConcurrentLongTable<V> table;
+
+	private Set<Entry<T, V>> entrySet;
+
+	AbstractDocumentMap(int expectedSize, int concurrencyLevel) {
+		this.table = new ConcurrentLongTable<>(expectedSize, concurrencyLevel, true);
+	}
+
+	abstract boolean isDocument(Object obj);
+
+	abstract long toLong(T document);
+
+	abstract T of(long digits);
+
+	abstract boolean isValid(long digits);
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V get(Object key) {
+		return isDocument(key) ? table.get(toLong((T) key)) : null;
+	}
+
+	public V get(long digits) {
+		return table.get(digits);
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return get(key) != null;
+	}
+
+	public boolean containsKey(long digits) {
+		return table.contains(digits);
+	}
+
+	@Override
+	public V put(T key, V value) {
+		checkNotNull(key);
+		checkNotNull(value);
+		return table.put(toLong(key), value, false);
+	}
+
+	public V put(long digits, V value) {
+		checkArgument(isValid(digits));
+		checkNotNull(value);
+		return table.put(digits, value, false);
+	}
+
+	@Override
+	public V putIfAbsent(T key, V value) {
+		checkNotNull(key);
+		checkNotNull(value);
+		return table.put(toLong(key), value, true);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V remove(Object key) {
+		return isDocument(key) ? table.remove(toLong((T) key)) : null;
+	}
+
+	public V remove(long digits) {
+		return table.remove(digits);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean remove(Object key, Object value) {
+		return isDocument(key) && value != null && table.remove(toLong((T) key), value);
+	}
+
+	@Override
+	public V replace(T key, V value) {
+		checkNotNull(key);
+		checkNotNull(value);
+		return table.replace(toLong(key), value);
+	}
+
+	@Override
+	public boolean replace(T key, V oldValue, V newValue) {
+		checkNotNull(key);
+		checkNotNull(oldValue);
+		checkNotNull(newValue);
+		return table.replace(toLong(key), oldValue, newValue);
+	}
+
+	@Override
+	public int size() {
+		return table.size();
+	}
+
+	@Override
+	public void clear() {
+		table.clear();
+	}
+
+	public void forEachLongKey(LongConsumer action) {
+		checkNotNull(action);
+		table.forEach(action);
+	}
+
+	@Override
+	public Set<Entry<T, V>> entrySet() {
+		Set<Entry<T, V>> result = entrySet;
+		if (result == null) {
+			result = new AbstractSet<Entry<T, V>>() {
+
+				@Override
+				@SuppressWarnings("unchecked")
+				public Iterator<Entry<T, V>> iterator() {
+					return ConcurrentLongTable.iterator(table,
+							(digits, value) -> new SimpleImmutableEntry<>(of(digits), (V) value), table::remove);
+				}
+
+				@Override
+				public int size() {
+					return table.size();
+				}
+
+				@Override
+				public void clear() {
+					table.clear();
+				}
+
+			};
+			entrySet = result;
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,105 @@
+package me.yanaga.opes;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.function.LongConsumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+abstract class AbstractDocumentSet<T> extends AbstractSet<T> {
+
+	private final ConcurrentLongTable<Boolean> table;
+
+	AbstractDocumentSet(int expectedSize, int concurrencyLevel) {
+		this.table = new ConcurrentLongTable<>(expectedSize, concurrencyLevel, false);
+	}
+
+	abstract boolean isDocument(Object obj);
+
+	abstract long toLong(T document);
+
+	abstract T of(long digits);
+
+	abstract boolean isValid(long digits);
+
+	@Override
+	public boolean add(T document) {
+		checkNotNull(document);
+		return table.put(toLong(document), Boolean.TRUE, true) == null;
+	}
+
+	public boolean add(long digits) {
+		checkArgument(isValid(digits));
+		return table.put(digits, Boolean.TRUE, true) == null;
+	}
+
+	void addValidated(long digits) {
+		table.put(digits, Boolean.TRUE, true);
+	}
+
+	void addAll(AbstractDocumentSet<T> other) {
+		other.table.forEach(digits -> table.put(digits, Boolean.TRUE, true));
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean contains(Object obj) {
+		return isDocument(obj) && table.contains(toLong((T) obj));
+	}
+
+	public boolean contains(long digits) {
+		return table.contains(digits);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean remove(Object obj) {
+		return isDocument(obj) && table.remove(toLong((T) obj)) != null;
+	}
+
+	public boolean remove(long digits) {
+		return table.remove(digits) != null;
+	}
+
+	@Override
+	public int size() {
+		return table.size();
+	}
+
+	@Override
+	public void clear() {
+		table.clear();
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return ConcurrentLongTable.iterator(table, (digits, value) -> of(digits), table::remove);
+	}
+
+	public void forEachLong(LongConsumer action) {
+		checkNotNull(action);
+		table.forEach(action);
+	}
+
+}
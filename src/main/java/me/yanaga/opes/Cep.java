@@ -20,90 +20,221 @@ package me.yanaga.opes;
  * #L%
  */
 
-import com.google.common.collect.ComparisonChain;
-
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.Formattable;
 import java.util.Formatter;
-import java.util.Objects;
+import java.util.List;
+import java.util.Optional;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
-import static java.util.FormattableFlags.ALTERNATE;
-import static java.util.FormattableFlags.LEFT_JUSTIFY;
 
 public class Cep implements Serializable, Formattable, Comparable<Cep> {
 
-	private static final long serialVersionUID = 1L;
+	private static final long serialVersionUID = 2L;
+
+	static final String MASCARA = "#####-###";
+
+	private static final int[] FAIXAS_INICIO = {
+			10, 200, 290, 300, 400, 490, 500, 570, 580, 590, 600, 640, 650, 660, 689, 690, 693, 694, 699, 700,
+			728, 730, 737, 768, 770, 780, 789, 790, 800, 880, 900 };
+
+	private static final int[] FAIXAS_FIM = {
+			199, 289, 299, 399, 489, 499, 569, 579, 589, 599, 639, 649, 659, 688, 689, 692, 693, 698, 699, 727,
+			729, 736, 767, 769, 779, 788, 789, 799, 879, 899, 999 };
+
+	private static final Uf[] FAIXAS_UF = {
+			Uf.SP, Uf.RJ, Uf.ES, Uf.MG, Uf.BA, Uf.SE, Uf.PE, Uf.AL, Uf.PB, Uf.RN, Uf.CE, Uf.PI, Uf.MA, Uf.PA,
+			Uf.AP, Uf.AM, Uf.RR, Uf.AM, Uf.AC, Uf.DF, Uf.GO, Uf.DF, Uf.GO, Uf.RO, Uf.TO, Uf.MT, Uf.RO, Uf.MS,
+			Uf.PR, Uf.SC, Uf.RS };
+
+	private static final int PREFIXO = 100_000;
+
+	private static final Uf[] UFS = new Uf[1000];
+
+	private static final Optional<?>[] OPTIONALS = new Optional<?>[1000];
+
+	static {
+		Optional<?>[] porUf = new Optional<?>[Uf.values().length];
+		for (Uf uf : Uf.values()) {
+			porUf[uf.ordinal()] = Optional.of(uf);
+		}
+		for (int i = 0; i < OPTIONALS.length; i++) {
+			OPTIONALS[i] = Optional.empty();
+		}
+		for (int faixa = 0; faixa < FAIXAS_UF.length; faixa++) {
+			Uf uf = FAIXAS_UF[faixa];
+			for (int i = FAIXAS_INICIO[faixa]; i <= FAIXAS_FIM[faixa]; i++) {
+				UFS[i] = uf;
+				OPTIONALS[i] = porUf[uf.ordinal()];
+			}
+		}
+	}
 
-	private final String value;
+	private final int value;
 
-	private Cep(String value) {
+	private Cep(int value) {
 		this.value = value;
 	}
 
 	public static Cep of(String value) {
 		checkNotNull(value);
-		String digits = value.replaceAll("\\D", "");
-		checkArgument(digits.matches("\\d{8}"));
+		long digits = Digits.parse(value, 8);
+		checkArgument(digits >= 0);
+		return new Cep((int) digits);
+	}
+
+	public static ParseResult<Cep> tryParse(String value) {
+		checkNotNull(value);
+		long digits = Digits.parse(value, 8);
+		if (digits < 0) {
+			return ParseResult.failure(ParseError.WRONG_LENGTH);
+		}
+		return ParseResult.success(new Cep((int) digits));
+	}
+
+	public static Cep of(CharSequence value, int start, int end) {
+		checkNotNull(value);
+		long digits = Digits.parse(value, start, end, 8);
+		checkArgument(digits >= 0);
+		return new Cep((int) digits);
+	}
+
+	public static Cep of(byte[] bytes, int offset, int length) {
+		checkNotNull(bytes);
+		long digits = Digits.parse(bytes, offset, length, 8);
+		checkArgument(digits >= 0);
+		return new Cep((int) digits);
+	}
+
+	public static Cep of(ByteBuffer buffer) {
+		checkNotNull(buffer);
+		long digits = Digits.parse(buffer, 8);
+		checkArgument(digits >= 0);
+		return new Cep((int) digits);
+	}
+
+	public static Cep ofInt(int value) {
+		checkArgument(Digits.isInRange(value, 8));
+		return new Cep(value);
+	}
 
-		return new Cep(digits);
+	public int toInt() {
+		return value;
+	}
+
+	@SuppressWarnings("unchecked")
+	public Optional<Uf> getUf() {
+		return (Optional<Uf>) OPTIONALS[value / PREFIXO];
+	}
+
+	/**
+	 * Groups the given CEPs by {@link Uf}. CEPs outside every known range (00000-000 to 00999-999) are skipped.
+	 */
+	public static EnumMap<Uf, List<Cep>> groupingByUf(Iterable<Cep> ceps) {
+		checkNotNull(ceps);
+		return group(ceps, null);
+	}
+
+	/**
+	 * Groups the given CEPs by {@link Uf}, adding CEPs outside every known range (00000-000 to 00999-999) to
+	 * {@code semUf} instead.
+	 */
+	public static EnumMap<Uf, List<Cep>> groupingByUf(Iterable<Cep> ceps, Collection<? super Cep> semUf) {
+		checkNotNull(ceps);
+		checkNotNull(semUf);
+		return group(ceps, semUf);
+	}
+
+	private static EnumMap<Uf, List<Cep>> group(Iterable<Cep> ceps, Collection<? super Cep> semUf) {
+		@SuppressWarnings("unchecked")
+		List<Cep>[] buckets = new List[Uf.values().length];
+		for (Cep cep : ceps) {
+			Uf uf = UFS[cep.value / PREFIXO];
+			if (uf == null) {
+				if (semUf != null) {
+					semUf.add(cep);
+				}
+				continue;
+			}
+			List<Cep> bucket = buckets[uf.ordinal()];
+			if (bucket == null) {
+				bucket = new ArrayList<>();
+				buckets[uf.ordinal()] = bucket;
+			}
+			bucket.add(cep);
+		}
+		EnumMap<Uf, List<Cep>> result = new EnumMap<>(Uf.class);
+		for (Uf uf : Uf.values()) {
+			if (buckets[uf.ordinal()] != null) {
+				result.put(uf, buckets[uf.ordinal()]);
+			}
+		}
+		return result;
 	}
 
 	@Override
 	public boolean equals(Object obj) {
 		if (obj instanceof Cep) {
 			Cep other = (Cep) obj;
-			return Objects.equals(this.value, other.value);
+			return this.value == other.value;
 		}
 		return false;
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(this.value);
+		return Integer.hashCode(this.value);
 	}
 
 	@Override
 	public String toString() {
-		return this.value;
+		return Digits.toString(value, 8);
 	}
 
 	@Override
 	public void formatTo(Formatter formatter, int flags, int width, int precision) {
-		StringBuilder sb = new StringBuilder();
-		boolean alternate = (flags & ALTERNATE) == ALTERNATE;
-		if (alternate) {
-			sb.append(value);
-		}
-		else {
-			sb.append(value.substring(0, 5));
-			sb.append("-");
-			sb.append(value.substring(5));
+		Digits.formatTo(formatter, flags, width, value, 8, MASCARA);
+	}
+
+	public <A extends Appendable> A appendTo(A appendable, boolean masked) throws IOException {
+		checkNotNull(appendable);
+		return Digits.append(value, 8, masked ? MASCARA : null, appendable);
+	}
+
+	public StringBuilder appendTo(StringBuilder builder, boolean masked) {
+		checkNotNull(builder);
+		try {
+			return Digits.append(value, 8, masked ? MASCARA : null, builder);
 		}
-		int length = sb.length();
-		if (length < width) {
-			for (int i = 0; i < width - length; i++) {
-				if (alternate) {
-					sb.insert(0, '0');
-				}
-				else {
-					boolean leftJustified = (flags & LEFT_JUSTIFY) == LEFT_JUSTIFY;
-					if (leftJustified) {
-						sb.append(' ');
-					}
-					else {
-						sb.insert(0, ' ');
-					}
-				}
-			}
+		catch (IOException ex) {
+			throw new AssertionError(ex);
 		}
-		formatter.format(sb.toString());
+	}
+
+	public int writeTo(char[] dest, int offset, boolean masked) {
+		checkNotNull(dest);
+		return Digits.write(value, 8, masked ? MASCARA : null, dest, offset);
 	}
 
 	@Override
 	public int compareTo(Cep o) {
-		return ComparisonChain.start().compare(this.value, o.value).result();
+		return Integer.compare(this.value, o.value);
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		throw new InvalidObjectException("Proxy required");
+	}
+
+	private Object writeReplace() {
+		return new Ser(this);
 	}
 
 }
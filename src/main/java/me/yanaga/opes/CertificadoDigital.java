@@ -20,6 +20,11 @@ package me.yanaga.opes;
  * #L%
  */
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 import org.bouncycastle.asn1.ASN1Object;
 import org.bouncycastle.asn1.ASN1ObjectIdentifier;
 import org.bouncycastle.asn1.ASN1TaggedObject;
@@ -34,8 +39,8 @@ import javax.xml.crypto.AlgorithmMethod;
 import javax.xml.crypto.KeySelector;
 import javax.xml.crypto.KeySelectorException;
 import javax.xml.crypto.KeySelectorResult;
+import javax.xml.crypto.MarshalException;
 import javax.xml.crypto.XMLCryptoContext;
-import javax.xml.crypto.XMLStructure;
 import javax.xml.crypto.dsig.CanonicalizationMethod;
 import javax.xml.crypto.dsig.DigestMethod;
 import javax.xml.crypto.dsig.Reference;
@@ -43,6 +48,7 @@ import javax.xml.crypto.dsig.SignatureMethod;
 import javax.xml.crypto.dsig.SignedInfo;
 import javax.xml.crypto.dsig.Transform;
 import javax.xml.crypto.dsig.XMLSignature;
+import javax.xml.crypto.dsig.XMLSignatureException;
 import javax.xml.crypto.dsig.XMLSignatureFactory;
 import javax.xml.crypto.dsig.dom.DOMSignContext;
 import javax.xml.crypto.dsig.dom.DOMValidateContext;
@@ -51,27 +57,33 @@ import javax.xml.crypto.dsig.keyinfo.KeyInfoFactory;
 import javax.xml.crypto.dsig.keyinfo.X509Data;
 import javax.xml.crypto.dsig.spec.C14NMethodParameterSpec;
 import javax.xml.crypto.dsig.spec.TransformParameterSpec;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InvalidObjectException;
 import java.io.ObjectInputStream;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.security.GeneralSecurityException;
 import java.security.Key;
 import java.security.KeyStore;
 import java.security.PrivateKey;
 import java.security.PublicKey;
 import java.security.cert.Certificate;
+import java.security.cert.CertificateEncodingException;
 import java.security.cert.CertificateParsingException;
 import java.security.cert.X509Certificate;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Enumeration;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -84,6 +96,17 @@ public final class CertificadoDigital implements Serializable {
 
 	private static final char[] DEFAULT_CERTIFICATE_PASSWORD = { 'o', 'p', 'e', 's' };
 
+	private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+	private static final Cache<HashCode, ResolvedKey> KEY_CACHE = CacheBuilder.newBuilder()
+			.maximumSize(4096)
+			.recordStats()
+			.build();
+
+	private static final X509KeySelector KEY_SELECTOR = new X509KeySelector();
+
+	private static final ThreadLocal<Assinador> ASSINADORES = ThreadLocal.withInitial(Assinador::new);
+
 	private static final ASN1ObjectIdentifier OID_CNPJ = new ASN1ObjectIdentifier("2.16.76.1.3.3");
 
 	private final transient byte[] bytes;
@@ -96,13 +119,15 @@ public final class CertificadoDigital implements Serializable {
 
 	private final transient X509Certificate[] certificateChain;
 
+	private final transient KeyInfo keyInfo;
+
 	private CertificadoDigital(byte[] bytes, CpfCnpj cpfCnpj, Instant expiry, PrivateKey privateKey, X509Certificate[] certificateChain) {
 		this.bytes = bytes;
 		this.cnpj = cpfCnpj;
 		this.expiry = expiry;
 		this.privateKey = privateKey;
 		this.certificateChain = certificateChain;
-
+		this.keyInfo = ASSINADORES.get().newKeyInfo(certificateChain[0]);
 	}
 
 	public static CertificadoDigital of(InputStream in) {
@@ -164,33 +189,45 @@ public final class CertificadoDigital implements Serializable {
 		try {
 			Element element = node instanceof Document ? ((Document) node).getDocumentElement() : (Element) node;
 			DOMSignContext dsc = new DOMSignContext(privateKey, element);
-			XMLSignatureFactory signatureFactory = XMLSignatureFactory.getInstance("DOM");
-
-			List<Transform> transformList = new LinkedList<>();
-			transformList.add(signatureFactory.newTransform(Transform.ENVELOPED, (TransformParameterSpec) null));
-			transformList.add(signatureFactory.newTransform(C14N_TRANSFORM_METHOD, (TransformParameterSpec) null));
 
 			Node child = findFirstElementChild(element);
 			((Element) child).setIdAttribute("Id", true);
 
 			String id = child.getAttributes().getNamedItem("Id").getNodeValue();
-			String uri = String.format("#%s", id);
-			Reference reference = signatureFactory.newReference(uri,
-					signatureFactory.newDigestMethod(DigestMethod.SHA1, null), transformList, null, null);
-
-			SignedInfo signedInfo = signatureFactory.newSignedInfo(signatureFactory.newCanonicalizationMethod(
-					CanonicalizationMethod.INCLUSIVE, (C14NMethodParameterSpec) null), signatureFactory
-					.newSignatureMethod(SignatureMethod.RSA_SHA1, null), Collections.singletonList(reference));
-
-			KeyInfoFactory kif = signatureFactory.getKeyInfoFactory();
-			X509Data x509Data = kif.newX509Data(Collections.singletonList(certificateChain[0]));
-			KeyInfo keyInfo = kif.newKeyInfo(Collections.singletonList(x509Data));
+			ASSINADORES.get().sign(String.format("#%s", id), dsc, keyInfo);
 
-			XMLSignature xmlSignature = signatureFactory.newXMLSignature(signedInfo, keyInfo);
+			return node;
+		}
+		catch (Exception ex) {
+			throw new IllegalArgumentException("Erro ao assinar XML.", ex);
+		}
+	}
 
-			xmlSignature.sign(dsc);
+	public void sign(InputStream in, OutputStream out) {
+		checkNotNull(in);
+		checkNotNull(out);
+		try {
+			XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(in);
+			try {
+				sign(reader, out);
+			}
+			finally {
+				reader.close();
+			}
+		}
+		catch (XMLStreamException ex) {
+			throw new IllegalArgumentException("Erro ao assinar XML.", ex);
+		}
+	}
 
-			return node;
+	public void sign(XMLStreamReader reader, OutputStream out) {
+		checkNotNull(reader);
+		checkNotNull(out);
+		try {
+			new StreamingSigner(privateKey, certificateChain[0]).sign(reader, out);
+		}
+		catch (IllegalArgumentException ex) {
+			throw ex;
 		}
 		catch (Exception ex) {
 			throw new IllegalArgumentException("Erro ao assinar XML.", ex);
@@ -201,10 +238,9 @@ public final class CertificadoDigital implements Serializable {
 		checkNotNull(document);
 		try {
 			NodeList nl = document.getElementsByTagNameNS(XMLSignature.XMLNS, "Signature");
-			DOMValidateContext valContext = new DOMValidateContext(new X509KeySelector(), nl.item(0));
+			DOMValidateContext valContext = new DOMValidateContext(KEY_SELECTOR, nl.item(0));
 
-			XMLSignatureFactory signatureFactory = XMLSignatureFactory.getInstance("DOM");
-			XMLSignature signature = signatureFactory.unmarshalXMLSignature(valContext);
+			XMLSignature signature = ASSINADORES.get().signatureFactory.unmarshalXMLSignature(valContext);
 
 			return signature.validate(valContext);
 		}
@@ -213,6 +249,26 @@ public final class CertificadoDigital implements Serializable {
 		}
 	}
 
+	/**
+	 * Releases the JSR-105 signing context cached for the calling thread. Pooled threads of a container that
+	 * redeploys applications should call this before being returned, so they do not keep this class loader reachable.
+	 */
+	public static void releaseThreadContext() {
+		ASSINADORES.remove();
+	}
+
+	static CacheStats keyCacheStats() {
+		return KEY_CACHE.stats();
+	}
+
+	private static XMLInputFactory createXmlInputFactory() {
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+		return factory;
+	}
+
 	private Node findFirstElementChild(Node node) {
 		NodeList childNodes = node.getChildNodes();
 		Node child = null;
@@ -284,33 +340,66 @@ public final class CertificadoDigital implements Serializable {
 
 	}
 
+	private static class Assinador {
+
+		private final XMLSignatureFactory signatureFactory = XMLSignatureFactory.getInstance("DOM");
+
+		private final List<Transform> transforms;
+
+		private final DigestMethod digestMethod;
+
+		private final CanonicalizationMethod canonicalizationMethod;
+
+		private final SignatureMethod signatureMethod;
+
+		Assinador() {
+			try {
+				List<Transform> transformList = new ArrayList<>(2);
+				transformList.add(signatureFactory.newTransform(Transform.ENVELOPED, (TransformParameterSpec) null));
+				transformList.add(signatureFactory.newTransform(C14N_TRANSFORM_METHOD, (TransformParameterSpec) null));
+				this.transforms = Collections.unmodifiableList(transformList);
+				this.digestMethod = signatureFactory.newDigestMethod(DigestMethod.SHA1, null);
+				this.canonicalizationMethod = signatureFactory.newCanonicalizationMethod(
+						CanonicalizationMethod.INCLUSIVE, (C14NMethodParameterSpec) null);
+				this.signatureMethod = signatureFactory.newSignatureMethod(SignatureMethod.RSA_SHA1, null);
+			}
+			catch (GeneralSecurityException ex) {
+				throw new IllegalStateException(ex);
+			}
+		}
+
+		KeyInfo newKeyInfo(X509Certificate certificate) {
+			KeyInfoFactory kif = signatureFactory.getKeyInfoFactory();
+			X509Data x509Data = kif.newX509Data(Collections.singletonList(certificate));
+			return kif.newKeyInfo(Collections.singletonList(x509Data));
+		}
+
+		void sign(String uri, DOMSignContext dsc, KeyInfo keyInfo) throws MarshalException, XMLSignatureException {
+			Reference reference = signatureFactory.newReference(uri, digestMethod, transforms, null, null);
+			SignedInfo signedInfo = signatureFactory.newSignedInfo(canonicalizationMethod, signatureMethod,
+					Collections.singletonList(reference));
+			signatureFactory.newXMLSignature(signedInfo, keyInfo).sign(dsc);
+		}
+
+	}
+
 	private static class X509KeySelector extends KeySelector {
 
 		@Override
 		public KeySelectorResult select(KeyInfo keyInfo, Purpose purpose, AlgorithmMethod method,
 				XMLCryptoContext context) throws KeySelectorException {
-
-			@SuppressWarnings("unchecked")
-			Iterator<XMLStructure> ki = keyInfo.getContent().iterator();
-
-			while (ki.hasNext()) {
-				XMLStructure info = ki.next();
+			if (keyInfo == null) {
+				throw new KeySelectorException("No KeyValue element found!");
+			}
+			String algorithm = method.getAlgorithm();
+			for (Object info : keyInfo.getContent()) {
 				if (info instanceof X509Data) {
-					X509Data x509Data = (X509Data) info;
-					@SuppressWarnings("unchecked")
-					Iterator<Object> xi = x509Data.getContent().iterator();
-					while (xi.hasNext()) {
-						Object o = xi.next();
-						if (!(o instanceof X509Certificate))
-							continue;
-						final PublicKey key = ((X509Certificate) o).getPublicKey();
-						if (algEquals(method.getAlgorithm(), key.getAlgorithm())) {
-							return new KeySelectorResult() {
-								@Override
-								public Key getKey() {
-									return key;
-								}
-							};
+					for (Object o : ((X509Data) info).getContent()) {
+						if (o instanceof X509Certificate) {
+							ResolvedKey resolved = resolve((X509Certificate) o);
+							if (resolved.supports(algorithm)) {
+								return resolved;
+							}
 						}
 					}
 				}
@@ -318,6 +407,16 @@ public final class CertificadoDigital implements Serializable {
 			throw new KeySelectorException("No KeyValue element found!");
 		}
 
+		private static ResolvedKey resolve(X509Certificate certificate) throws KeySelectorException {
+			try {
+				HashCode fingerprint = Hashing.sha256().hashBytes(certificate.getEncoded());
+				return KEY_CACHE.get(fingerprint, () -> new ResolvedKey(certificate.getPublicKey()));
+			}
+			catch (CertificateEncodingException | ExecutionException ex) {
+				throw new KeySelectorException(ex);
+			}
+		}
+
 		static boolean algEquals(String algURI, String algName) {
 			if (algName.equalsIgnoreCase("DSA") && algURI.equalsIgnoreCase(SignatureMethod.DSA_SHA1)) {
 				return true;
@@ -331,4 +430,34 @@ public final class CertificadoDigital implements Serializable {
 		}
 	}
 
+	private static final class ResolvedKey implements KeySelectorResult {
+
+		private final PublicKey key;
+
+		private final String algorithm;
+
+		ResolvedKey(PublicKey key) {
+			this.key = key;
+			if (X509KeySelector.algEquals(SignatureMethod.RSA_SHA1, key.getAlgorithm())) {
+				this.algorithm = SignatureMethod.RSA_SHA1;
+			}
+			else if (X509KeySelector.algEquals(SignatureMethod.DSA_SHA1, key.getAlgorithm())) {
+				this.algorithm = SignatureMethod.DSA_SHA1;
+			}
+			else {
+				this.algorithm = null;
+			}
+		}
+
+		boolean supports(String algorithm) {
+			return this.algorithm != null && (this.algorithm == algorithm || this.algorithm.equalsIgnoreCase(algorithm));
+		}
+
+		@Override
+		public Key getKey() {
+			return key;
+		}
+
+	}
+
 }
@@ -20,110 +20,192 @@ package me.yanaga.opes;
  * #L%
  */
 
-import com.google.common.collect.ComparisonChain;
-
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.BitSet;
 import java.util.Formattable;
 import java.util.Formatter;
-import java.util.Objects;
+import java.util.List;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
-import static java.util.FormattableFlags.ALTERNATE;
-import static java.util.FormattableFlags.LEFT_JUSTIFY;
 
 public class Cnpj implements Serializable, Formattable, Comparable<Cnpj> {
 
-	private static final long serialVersionUID = 1L;
+	private static final long serialVersionUID = 2L;
+
+	static final String MASCARA = "##.###.###/####-##";
+
+	private static final int[] PESOS = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 2, 3, 4, 5, 6 };
 
-	private final String value;
+	private final long value;
 
-	private Cnpj(String value) {
+	private Cnpj(long value) {
 		this.value = value;
 	}
 
 	public static Cnpj of(String value) {
 		checkNotNull(value);
-		String digits = value.replaceAll("\\D", "");
-		checkArgument(digits.matches("\\d{14}"));
-		checkArgument(!digits.matches("(\\d)\\1+"));
-		checkArgument(isValid(digits.substring(0, 13)));
-		checkArgument(isValid(digits));
+		long digits = Digits.parse(value, 14);
+		checkArgument(digits >= 0 && isValid(digits));
+		return new Cnpj(digits);
+	}
+
+	public static Cnpj of(CharSequence value, int start, int end) {
+		checkNotNull(value);
+		long digits = Digits.parse(value, start, end, 14);
+		checkArgument(digits >= 0 && isValid(digits));
+		return new Cnpj(digits);
+	}
+
+	public static Cnpj of(byte[] bytes, int offset, int length) {
+		checkNotNull(bytes);
+		long digits = Digits.parse(bytes, offset, length, 14);
+		checkArgument(digits >= 0 && isValid(digits));
+		return new Cnpj(digits);
+	}
+
+	public static Cnpj of(ByteBuffer buffer) {
+		checkNotNull(buffer);
+		long digits = Digits.parse(buffer, 14);
+		checkArgument(digits >= 0 && isValid(digits));
+		return new Cnpj(digits);
+	}
+
+	public static Cnpj ofLong(long value) {
+		checkArgument(Digits.isInRange(value, 14) && isValid(value));
+		return new Cnpj(value);
+	}
+
+	static Cnpj ofValidated(long digits) {
 		return new Cnpj(digits);
 	}
 
-	static boolean isValid(String digits) {
-		if (Long.parseLong(digits) % 10 == 0) {
-			return somaPonderada(digits) % 11 < 2;
+	public static ParseResult<Cnpj> tryParse(String value) {
+		checkNotNull(value);
+		long digits = Digits.parse(value, 14);
+		if (digits < 0) {
+			return ParseResult.failure(ParseError.WRONG_LENGTH);
 		}
-		else {
-			return somaPonderada(digits) % 11 == 0;
+		ParseError error = check(digits);
+		return error == null ? ParseResult.success(new Cnpj(digits)) : ParseResult.failure(error);
+	}
+
+	public static int validateAll(CharSequence[] in, BitSet validOut) {
+		return validateAll(in, validOut, null);
+	}
+
+	public static int validateAll(CharSequence[] in, BitSet validOut, long[] digitsOut) {
+		return Digits.validateAll(in, validOut, null, digitsOut, Long.MAX_VALUE, Cnpj::validDigits);
+	}
+
+	public static int validateAll(List<? extends CharSequence> in, BitSet validOut) {
+		return validateAll(in, validOut, null);
+	}
+
+	public static int validateAll(List<? extends CharSequence> in, BitSet validOut, long[] digitsOut) {
+		return Digits.validateAll(in, validOut, null, digitsOut, Long.MAX_VALUE, Cnpj::validDigits);
+	}
+
+	static long validDigits(CharSequence value) {
+		if (value == null) {
+			return -1;
 		}
+		long digits = Digits.parse(value, 14);
+		return digits >= 0 && isValid(digits) ? digits : -1;
+	}
+
+	static boolean isValid(long digits) {
+		return check(digits) == null;
 	}
 
-	static int somaPonderada(String digits) {
-		char[] cs = digits.toCharArray();
-		int soma = 0;
-		for (int i = 0; i < cs.length; i++) {
-			int index = cs.length - i - 1;
-			soma += Character.digit(cs[i], 10) * ((index % 9 + 1) + (index / 9));
+	static ParseError check(long digits) {
+		if (Digits.isRepeated(digits, 14)) {
+			return ParseError.REPEATED_DIGITS;
+		}
+		long n = digits;
+		int segundoDigito = (int) (n % 10);
+		n /= 10;
+		int primeiroDigito = (int) (n % 10);
+		int soma13 = 0;
+		int soma14 = segundoDigito;
+		for (int i = 1; i <= 13; i++) {
+			int digit = (int) (n % 10);
+			soma13 += digit * PESOS[i - 1];
+			soma14 += digit * PESOS[i];
+			n /= 10;
+		}
+		if (!Digits.isCheckDigitValid(soma13, primeiroDigito)) {
+			return ParseError.FIRST_CHECK_DIGIT;
 		}
-		return soma;
+		if (!Digits.isCheckDigitValid(soma14, segundoDigito)) {
+			return ParseError.SECOND_CHECK_DIGIT;
+		}
+		return null;
+	}
+
+	public long toLong() {
+		return value;
 	}
 
 	@Override
 	public boolean equals(Object obj) {
 		if (obj instanceof Cnpj) {
 			Cnpj other = (Cnpj) obj;
-			return Objects.equals(this.value, other.value);
+			return this.value == other.value;
 		}
 		return false;
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(this.value);
+		return Long.hashCode(this.value);
 	}
 
 	@Override
 	public String toString() {
-		return this.value;
+		return Digits.toString(value, 14);
 	}
 
 	@Override
 	public void formatTo(Formatter formatter, int flags, int width, int precision) {
-		StringBuilder sb = new StringBuilder();
-		boolean alternate = (flags & ALTERNATE) == ALTERNATE;
-		if (alternate) {
-			sb.append(value);
-		}
-		else {
-			sb.append(String.format("%s.%s.%s/%s-%s", value.substring(0, 2), value.substring(2, 5),
-					value.substring(5, 8), value.substring(8, 12), value.substring(12)));
+		Digits.formatTo(formatter, flags, width, value, 14, MASCARA);
+	}
+
+	public <A extends Appendable> A appendTo(A appendable, boolean masked) throws IOException {
+		checkNotNull(appendable);
+		return Digits.append(value, 14, masked ? MASCARA : null, appendable);
+	}
+
+	public StringBuilder appendTo(StringBuilder builder, boolean masked) {
+		checkNotNull(builder);
+		try {
+			return Digits.append(value, 14, masked ? MASCARA : null, builder);
 		}
-		int length = sb.length();
-		if (length < width) {
-			for (int i = 0; i < width - length; i++) {
-				if (alternate) {
-					sb.insert(0, '0');
-				}
-				else {
-					boolean leftJustified = (flags & LEFT_JUSTIFY) == LEFT_JUSTIFY;
-					if (leftJustified) {
-						sb.append(' ');
-					}
-					else {
-						sb.insert(0, ' ');
-					}
-				}
-			}
+		catch (IOException ex) {
+			throw new AssertionError(ex);
 		}
-		formatter.format(sb.toString());
+	}
+
+	public int writeTo(char[] dest, int offset, boolean masked) {
+		checkNotNull(dest);
+		return Digits.write(value, 14, masked ? MASCARA : null, dest, offset);
 	}
 
 	@Override
 	public int compareTo(Cnpj o) {
-		return ComparisonChain.start().compare(this.value, o.value).result();
+		return Long.compare(this.value, o.value);
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		throw new InvalidObjectException("Proxy required");
+	}
+
+	private Object writeReplace() {
+		return new Ser(this);
 	}
 
 }
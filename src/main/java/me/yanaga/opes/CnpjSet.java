@@ -0,0 +1,57 @@
+package me.yanaga.opes;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+public final class CnpjSet extends AbstractDocumentSet<Cnpj> {
+
+	public CnpjSet() {
+		this(0);
+	}
+
+	public CnpjSet(int expectedSize) {
+		this(expectedSize, ConcurrentLongTable.DEFAULT_CONCURRENCY_LEVEL);
+	}
+
+	public CnpjSet(int expectedSize, int concurrencyLevel) {
+		super(expectedSize, concurrencyLevel);
+	}
+
+	@Override
+	boolean isDocument(Object obj) {
+		return obj instanceof Cnpj;
+	}
+
+	@Override
+	long toLong(Cnpj document) {
+		return document.toLong();
+	}
+
+	@Override
+	Cnpj of(long digits) {
+		return Cnpj.ofValidated(digits);
+	}
+
+	@Override
+	boolean isValid(long digits) {
+		return Digits.isInRange(digits, 14) && Cnpj.isValid(digits);
+	}
+
+}
@@ -20,52 +20,164 @@ package me.yanaga.opes;
  * #L%
  */
 
-import com.google.common.base.Objects;
-import com.google.common.collect.ComparisonChain;
-
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.BitSet;
 import java.util.Formattable;
 import java.util.Formatter;
+import java.util.List;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
-import static java.util.FormattableFlags.ALTERNATE;
-import static java.util.FormattableFlags.LEFT_JUSTIFY;
 
 public class Cns implements Serializable, Formattable, Comparable<Cns> {
 
-	private static final long serialVersionUID = 1L;
+	private static final long serialVersionUID = 2L;
+
+	static final String MASCARA = "### #### #### ####";
+
+	private static final byte INVALIDO = 0;
+
+	private static final byte DEFINITIVO = 1;
+
+	private static final byte PROVISORIO = 2;
 
-	private final String value;
+	private static final byte[] PREFIXOS = { INVALIDO, DEFINITIVO, DEFINITIVO, INVALIDO, INVALIDO, INVALIDO, INVALIDO,
+			PROVISORIO, PROVISORIO, PROVISORIO };
 
-	private Cns(String value) {
+	private static final byte[][] RESTOS = new byte[5][1000];
+
+	static {
+		for (int grupo = 0; grupo < RESTOS.length; grupo++) {
+			for (int valor = 0; valor < 1000; valor++) {
+				int soma = 0;
+				int digitos = valor;
+				for (int peso = grupo * 3 + 1; peso <= grupo * 3 + 3; peso++) {
+					soma += (digitos % 10) * peso;
+					digitos /= 10;
+				}
+				RESTOS[grupo][valor] = (byte) (soma % 11);
+			}
+		}
+	}
+
+	private final long value;
+
+	private Cns(long value) {
 		this.value = value;
 	}
 
 	public static Cns of(String value) {
 		checkNotNull(value);
-		String digits = value.replaceAll("\\D", "");
-		checkArgument(digits.matches("\\d{15}"));
-		checkArgument(!digits.matches("(\\d)\\1+"));
-		checkArgument(isValid(digits));
+		long digits = Digits.parse(value, 15);
+		checkArgument(digits >= 0 && isValid(digits));
+		return new Cns(digits);
+	}
+
+	public static Cns of(CharSequence value, int start, int end) {
+		checkNotNull(value);
+		long digits = Digits.parse(value, start, end, 15);
+		checkArgument(digits >= 0 && isValid(digits));
 		return new Cns(digits);
 	}
 
-	static boolean isValid(String s) {
-		if (s.matches("[1-2]\\d{10}00[0-1]\\d") || s.matches("[7-9]\\d{14}")) {
-			return somaPonderada(s) % 11 == 0;
+	public static Cns of(byte[] bytes, int offset, int length) {
+		checkNotNull(bytes);
+		long digits = Digits.parse(bytes, offset, length, 15);
+		checkArgument(digits >= 0 && isValid(digits));
+		return new Cns(digits);
+	}
+
+	public static Cns of(ByteBuffer buffer) {
+		checkNotNull(buffer);
+		long digits = Digits.parse(buffer, 15);
+		checkArgument(digits >= 0 && isValid(digits));
+		return new Cns(digits);
+	}
+
+	public static Cns ofLong(long value) {
+		checkArgument(Digits.isInRange(value, 15) && isValid(value));
+		return new Cns(value);
+	}
+
+	static Cns ofValidated(long digits) {
+		return new Cns(digits);
+	}
+
+	public static ParseResult<Cns> tryParse(String value) {
+		checkNotNull(value);
+		long digits = Digits.parse(value, 15);
+		if (digits < 0) {
+			return ParseResult.failure(ParseError.WRONG_LENGTH);
 		}
-		return false;
+		ParseError error = check(digits);
+		return error == null ? ParseResult.success(new Cns(digits)) : ParseResult.failure(error);
+	}
+
+	public static int validateAll(CharSequence[] in, BitSet validOut) {
+		return validateAll(in, validOut, null);
+	}
+
+	public static int validateAll(CharSequence[] in, BitSet validOut, long[] digitsOut) {
+		return Digits.validateAll(in, validOut, null, digitsOut, Long.MAX_VALUE, Cns::validDigits);
 	}
 
-	static int somaPonderada(String s) {
-		checkArgument(s.length() <= 15);
-		char[] cs = s.toCharArray();
+	public static int validateAll(List<? extends CharSequence> in, BitSet validOut) {
+		return validateAll(in, validOut, null);
+	}
+
+	public static int validateAll(List<? extends CharSequence> in, BitSet validOut, long[] digitsOut) {
+		return Digits.validateAll(in, validOut, null, digitsOut, Long.MAX_VALUE, Cns::validDigits);
+	}
+
+	static long validDigits(CharSequence value) {
+		if (value == null) {
+			return -1;
+		}
+		long digits = Digits.parse(value, 15);
+		return digits >= 0 && isValid(digits) ? digits : -1;
+	}
+
+	static boolean isValid(long digits) {
+		return check(digits) == null;
+	}
+
+	static ParseError check(long digits) {
+		if (Digits.isRepeated(digits, 15)) {
+			return ParseError.REPEATED_DIGITS;
+		}
+		int primeiroDigito = (int) (digits / 100_000_000_000_000L);
+		switch (PREFIXOS[primeiroDigito]) {
+			case DEFINITIVO:
+				if ((digits / 10) % 1000 > 1) {
+					return ParseError.INVALID_PREFIX;
+				}
+				break;
+			case PROVISORIO:
+				break;
+			default:
+				return ParseError.INVALID_PREFIX;
+		}
+		if (restoPonderado(digits) != 0) {
+			return ParseError.CHECK_DIGIT;
+		}
+		return null;
+	}
+
+	static int restoPonderado(long digits) {
 		int soma = 0;
-		for (int i = 0; i < cs.length; i++) {
-			soma += Character.digit(cs[i], 10) * (15 - i);
+		for (byte[] restos : RESTOS) {
+			soma += restos[(int) (digits % 1000)];
+			digits /= 1000;
 		}
-		return soma;
+		return soma % 11;
+	}
+
+	public long toLong() {
+		return value;
 	}
 
 	@Override
@@ -73,57 +185,59 @@ public class Cns implements Serializable, Formattable, Comparable<Cns> {
 		if (obj == this) {
 			return true;
 		}
-		if (obj instanceof Cpf) {
+		if (obj instanceof Cns) {
 			Cns other = (Cns) obj;
-			return Objects.equal(this.value, other.value);
+			return this.value == other.value;
 		}
 		return false;
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hashCode(this.value);
+		return Long.hashCode(this.value);
 	}
 
 	@Override
 	public String toString() {
-		return value;
+		return Digits.toString(value, 15);
 	}
 
 	@Override
 	public void formatTo(Formatter formatter, int flags, int width, int precision) {
-		StringBuilder sb = new StringBuilder();
-		boolean alternate = (flags & ALTERNATE) == ALTERNATE;
-		if (alternate) {
-			sb.append(value);
-		}
-		else {
-			sb.append(String.format("%s %s %s %s", value.substring(0, 3), value.substring(3, 7),
-					value.substring(7, 11), value.substring(11)));
+		Digits.formatTo(formatter, flags, width, value, 15, MASCARA);
+	}
+
+	public <A extends Appendable> A appendTo(A appendable, boolean masked) throws IOException {
+		checkNotNull(appendable);
+		return Digits.append(value, 15, masked ? MASCARA : null, appendable);
+	}
+
+	public StringBuilder appendTo(StringBuilder builder, boolean masked) {
+		checkNotNull(builder);
+		try {
+			return Digits.append(value, 15, masked ? MASCARA : null, builder);
 		}
-		int length = sb.length();
-		if (length < width) {
-			for (int i = 0; i < width - length; i++) {
-				if (alternate) {
-					sb.insert(0, '0');
-				}
-				else {
-					boolean leftJustified = (flags & LEFT_JUSTIFY) == LEFT_JUSTIFY;
-					if (leftJustified) {
-						sb.append(' ');
-					}
-					else {
-						sb.insert(0, ' ');
-					}
-				}
-			}
+		catch (IOException ex) {
+			throw new AssertionError(ex);
 		}
-		formatter.format(sb.toString());
+	}
+
+	public int writeTo(char[] dest, int offset, boolean masked) {
+		checkNotNull(dest);
+		return Digits.write(value, 15, masked ? MASCARA : null, dest, offset);
 	}
 
 	@Override
 	public int compareTo(Cns o) {
-		return ComparisonChain.start().compare(this.value, o.value).result();
+		return Long.compare(this.value, o.value);
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		throw new InvalidObjectException("Proxy required");
+	}
+
+	private Object writeReplace() {
+		return new Ser(this);
 	}
 
 }
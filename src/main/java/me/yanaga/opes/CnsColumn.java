@@ -0,0 +1,58 @@
+package me.yanaga.opes;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.nio.file.Path;
+
+public final class CnsColumn extends AbstractDocumentColumn<Cns> {
+
+	public CnsColumn() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public CnsColumn(int initialCapacity) {
+		super(15, initialCapacity);
+	}
+
+	private CnsColumn(Path file) {
+		super(15, file);
+	}
+
+	public static CnsColumn open(Path file) {
+		return new CnsColumn(file);
+	}
+
+	@Override
+	long toLong(Cns document) {
+		return document.toLong();
+	}
+
+	@Override
+	Cns of(long digits) {
+		return Cns.ofValidated(digits);
+	}
+
+	@Override
+	boolean isValid(long digits) {
+		return Cns.isValid(digits);
+	}
+
+}
@@ -0,0 +1,439 @@
+package me.yanaga.opes;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongConsumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+final class ConcurrentLongTable<V> {
+
+	static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+	private static final long EMPTY = 0;
+
+	private static final long REMOVED = -1;
+
+	private static final int MINIMUM_CAPACITY = 16;
+
+	private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+	private final Segment<V>[] segments;
+
+	private final int segmentShift;
+
+	@SuppressWarnings("unchecked")
+	ConcurrentLongTable(int expectedSize, int concurrencyLevel, boolean withValues) {
+		checkArgument(expectedSize >= 0);
+		checkArgument(concurrencyLevel > 0);
+		int segmentCount = Integer.highestOneBit(Math.min(concurrencyLevel, 1 << 16) * 2 - 1);
+		this.segments = new Segment[segmentCount];
+		this.segmentShift = 64 - Integer.numberOfTrailingZeros(segmentCount);
+		int capacity = capacityFor(expectedSize / segmentCount + 1);
+		for (int i = 0; i < segmentCount; i++) {
+			segments[i] = new Segment<>(capacity, withValues);
+		}
+	}
+
+	private static int capacityFor(int size) {
+		long capacity = Math.max(MINIMUM_CAPACITY, Long.highestOneBit(size * 4L / 3 + 1) << 1);
+		checkArgument(capacity <= MAXIMUM_CAPACITY, "Capacidade m\u00e1xima excedida.");
+		return (int) capacity;
+	}
+
+	private static long hash(long key) {
+		long h = key;
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+	private Segment<V> segmentFor(long hash) {
+		return segments.length == 1 ? segments[0] : segments[(int) (hash >>> segmentShift)];
+	}
+
+	boolean contains(long key) {
+		return get(key) != null;
+	}
+
+	@SuppressWarnings("unchecked")
+	V get(long key) {
+		if (key < 0) {
+			return null;
+		}
+		long hash = hash(key);
+		Segment<V> segment = segmentFor(hash);
+		while (true) {
+			int removals = segment.removals;
+			Object value = segment.table.find(key + 1, hash);
+			if (value == null || segment.removals == removals) {
+				return (V) value;
+			}
+		}
+	}
+
+	V put(long key, V value, boolean onlyIfAbsent) {
+		checkArgument(key >= 0);
+		long hash = hash(key);
+		return segmentFor(hash).put(key + 1, hash, value, onlyIfAbsent);
+	}
+
+	V remove(long key) {
+		if (key < 0) {
+			return null;
+		}
+		long hash = hash(key);
+		return segmentFor(hash).remove(key + 1, hash, null);
+	}
+
+	boolean remove(long key, Object expected) {
+		if (key < 0) {
+			return false;
+		}
+		long hash = hash(key);
+		return segmentFor(hash).remove(key + 1, hash, expected) != null;
+	}
+
+	V replace(long key, V value) {
+		if (key < 0) {
+			return null;
+		}
+		long hash = hash(key);
+		return segmentFor(hash).replace(key + 1, hash, null, value);
+	}
+
+	boolean replace(long key, V expected, V value) {
+		if (key < 0) {
+			return false;
+		}
+		long hash = hash(key);
+		return segmentFor(hash).replace(key + 1, hash, expected, value) != null;
+	}
+
+	int size() {
+		long size = 0;
+		for (Segment<V> segment : segments) {
+			size += segment.size;
+		}
+		return (int) Math.min(size, Integer.MAX_VALUE);
+	}
+
+	void clear() {
+		for (Segment<V> segment : segments) {
+			segment.clear();
+		}
+	}
+
+	void forEach(LongConsumer action) {
+		for (Segment<V> segment : segments) {
+			Table table = segment.table;
+			for (int i = 0; i <= table.mask; i++) {
+				long k = table.keys.get(i);
+				if (k > 0 && (table.values == null || table.values.get(i) != null)) {
+					action.accept(k - 1);
+				}
+			}
+		}
+	}
+
+	Cursor<V> cursor() {
+		return new Cursor<>(segments);
+	}
+
+	static final class Cursor<V> {
+
+		private final Segment<V>[] segments;
+
+		private int segment = -1;
+
+		private Table table;
+
+		private int index;
+
+		private long nextKey;
+
+		private Object nextValue;
+
+		private boolean ready;
+
+		private Cursor(Segment<V>[] segments) {
+			this.segments = segments;
+		}
+
+		boolean hasNext() {
+			while (!ready) {
+				if (table == null || index > table.mask) {
+					if (++segment >= segments.length) {
+						return false;
+					}
+					table = segments[segment].table;
+					index = 0;
+					continue;
+				}
+				int removals = segments[segment].removals;
+				int i = index++;
+				long k = table.keys.get(i);
+				if (k > 0) {
+					Object value = table.values == null ? Boolean.TRUE : table.values.get(i);
+					if (segments[segment].removals != removals) {
+						index = i;
+					}
+					else if (value != null) {
+						nextKey = k - 1;
+						nextValue = value;
+						ready = true;
+					}
+				}
+			}
+			return true;
+		}
+
+		long nextKey() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			ready = false;
+			return nextKey;
+		}
+
+		@SuppressWarnings("unchecked")
+		V value() {
+			return (V) nextValue;
+		}
+
+	}
+
+	static <T> Iterator<T> iterator(ConcurrentLongTable<?> table, KeyMapper<T> mapper, LongConsumer remover) {
+		Cursor<?> cursor = table.cursor();
+		return new Iterator<T>() {
+
+			private long last = -1;
+
+			@Override
+			public boolean hasNext() {
+				return cursor.hasNext();
+			}
+
+			@Override
+			public T next() {
+				last = cursor.nextKey();
+				return mapper.map(last, cursor.value());
+			}
+
+			@Override
+			public void remove() {
+				if (last < 0) {
+					throw new IllegalStateException();
+				}
+				remover.accept(last);
+				last = -1;
+			}
+
+		};
+	}
+
+	interface KeyMapper<T> {
+
+		T map(long key, Object value);
+
+	}
+
+	private static final class Table {
+
+		private final AtomicLongArray keys;
+
+		private final AtomicReferenceArray<Object> values;
+
+		private final int mask;
+
+		private final int threshold;
+
+		private Table(int capacity, boolean withValues) {
+			this.keys = new AtomicLongArray(capacity);
+			this.values = withValues ? new AtomicReferenceArray<>(capacity) : null;
+			this.mask = capacity - 1;
+			this.threshold = (int) (capacity * 3L / 4);
+		}
+
+		private Object find(long stored, long hash) {
+			for (int i = (int) hash & mask; ; i = (i + 1) & mask) {
+				long k = keys.get(i);
+				if (k == stored) {
+					return values == null ? Boolean.TRUE : values.get(i);
+				}
+				if (k == EMPTY) {
+					return null;
+				}
+			}
+		}
+
+	}
+
+	private static final class Segment<V> {
+
+		private final int initialCapacity;
+
+		private final boolean withValues;
+
+		private volatile Table table;
+
+		private volatile int size;
+
+		private volatile int removals;
+
+		private int used;
+
+		private Segment(int initialCapacity, boolean withValues) {
+			this.initialCapacity = initialCapacity;
+			this.withValues = withValues;
+			this.table = new Table(initialCapacity, withValues);
+		}
+
+		@SuppressWarnings("unchecked")
+		private synchronized V put(long stored, long hash, V value, boolean onlyIfAbsent) {
+			Table table = this.table;
+			int removed = -1;
+			int i = (int) hash & table.mask;
+			for (; ; i = (i + 1) & table.mask) {
+				long k = table.keys.get(i);
+				if (k == stored) {
+					if (table.values == null) {
+						return (V) Boolean.TRUE;
+					}
+					V previous = (V) table.values.get(i);
+					if (!onlyIfAbsent) {
+						table.values.set(i, value);
+					}
+					return previous;
+				}
+				if (k == EMPTY) {
+					break;
+				}
+				if (k == REMOVED && removed < 0) {
+					removed = i;
+				}
+			}
+			if (removed >= 0) {
+				i = removed;
+			}
+			else if (used + 1 > table.threshold) {
+				table = rehash(table);
+				i = (int) hash & table.mask;
+				while (table.keys.get(i) != EMPTY) {
+					i = (i + 1) & table.mask;
+				}
+				used++;
+			}
+			else {
+				used++;
+			}
+			if (table.values != null) {
+				table.values.set(i, value);
+			}
+			table.keys.set(i, stored);
+			size++;
+			return null;
+		}
+
+		@SuppressWarnings("unchecked")
+		private synchronized V remove(long stored, long hash, Object expected) {
+			Table table = this.table;
+			for (int i = (int) hash & table.mask; ; i = (i + 1) & table.mask) {
+				long k = table.keys.get(i);
+				if (k == stored) {
+					Object previous = table.values == null ? Boolean.TRUE : table.values.get(i);
+					if (expected != null && !expected.equals(previous)) {
+						return null;
+					}
+					removals++;
+					if (table.values != null) {
+						table.values.set(i, null);
+					}
+					table.keys.set(i, REMOVED);
+					size--;
+					return (V) previous;
+				}
+				if (k == EMPTY) {
+					return null;
+				}
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		private synchronized V replace(long stored, long hash, Object expected, V value) {
+			Table table = this.table;
+			for (int i = (int) hash & table.mask; ; i = (i + 1) & table.mask) {
+				long k = table.keys.get(i);
+				if (k == stored) {
+					Object previous = table.values.get(i);
+					if (expected != null && !expected.equals(previous)) {
+						return null;
+					}
+					table.values.set(i, value);
+					return (V) previous;
+				}
+				if (k == EMPTY) {
+					return null;
+				}
+			}
+		}
+
+		private synchronized void clear() {
+			table = new Table(initialCapacity, withValues);
+			size = 0;
+			used = 0;
+		}
+
+		private Table rehash(Table old) {
+			int capacity = old.mask + 1;
+			if (size + 1 > old.threshold / 2) {
+				checkArgument(capacity < MAXIMUM_CAPACITY, "Capacidade m\u00e1xima excedida.");
+				capacity <<= 1;
+			}
+			Table table = new Table(capacity, withValues);
+			for (int i = 0; i <= old.mask; i++) {
+				long k = old.keys.get(i);
+				if (k > 0) {
+					int j = (int) hash(k - 1) & table.mask;
+					while (table.keys.get(j) != EMPTY) {
+						j = (j + 1) & table.mask;
+					}
+					if (table.values != null) {
+						table.values.lazySet(j, old.values.get(i));
+					}
+					table.keys.lazySet(j, k);
+				}
+			}
+			used = size;
+			this.table = table;
+			return table;
+		}
+
+	}
+
+}
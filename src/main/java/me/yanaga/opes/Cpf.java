@@ -20,109 +20,190 @@ package me.yanaga.opes;
  * #L%
  */
 
-import com.google.common.collect.ComparisonChain;
-
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.BitSet;
 import java.util.Formattable;
 import java.util.Formatter;
-import java.util.Objects;
+import java.util.List;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
-import static java.util.FormattableFlags.ALTERNATE;
-import static java.util.FormattableFlags.LEFT_JUSTIFY;
 
 public class Cpf implements Serializable, Formattable, Comparable<Cpf> {
 
-	private static final long serialVersionUID = 1L;
+	private static final long serialVersionUID = 2L;
+
+	static final String MASCARA = "###.###.###-##";
 
-	private final String value;
+	private final long value;
 
-	private Cpf(String value) {
+	private Cpf(long value) {
 		this.value = value;
 	}
 
 	public static Cpf of(String value) {
 		checkNotNull(value);
-		String digits = value.replaceAll("\\D", "");
-		checkArgument(digits.matches("\\d{11}"));
-		checkArgument(!digits.matches("(\\d)\\1+"));
-		checkArgument(isValid(digits.substring(0, 10)));
-		checkArgument(isValid(digits));
+		long digits = Digits.parse(value, 11);
+		checkArgument(digits >= 0 && isValid(digits));
+		return new Cpf(digits);
+	}
+
+	public static Cpf of(CharSequence value, int start, int end) {
+		checkNotNull(value);
+		long digits = Digits.parse(value, start, end, 11);
+		checkArgument(digits >= 0 && isValid(digits));
+		return new Cpf(digits);
+	}
+
+	public static Cpf of(byte[] bytes, int offset, int length) {
+		checkNotNull(bytes);
+		long digits = Digits.parse(bytes, offset, length, 11);
+		checkArgument(digits >= 0 && isValid(digits));
+		return new Cpf(digits);
+	}
+
+	public static Cpf of(ByteBuffer buffer) {
+		checkNotNull(buffer);
+		long digits = Digits.parse(buffer, 11);
+		checkArgument(digits >= 0 && isValid(digits));
 		return new Cpf(digits);
 	}
 
-	static boolean isValid(String digits) {
-		if (Long.parseLong(digits) % 10 == 0) {
-			return somaPonderada(digits) % 11 < 2;
+	public static Cpf ofLong(long value) {
+		checkArgument(Digits.isInRange(value, 11) && isValid(value));
+		return new Cpf(value);
+	}
+
+	static Cpf ofValidated(long digits) {
+		return new Cpf(digits);
+	}
+
+	public static ParseResult<Cpf> tryParse(String value) {
+		checkNotNull(value);
+		long digits = Digits.parse(value, 11);
+		if (digits < 0) {
+			return ParseResult.failure(ParseError.WRONG_LENGTH);
 		}
-		else {
-			return somaPonderada(digits) % 11 == 0;
+		ParseError error = check(digits);
+		return error == null ? ParseResult.success(new Cpf(digits)) : ParseResult.failure(error);
+	}
+
+	public static int validateAll(CharSequence[] in, BitSet validOut) {
+		return validateAll(in, validOut, null);
+	}
+
+	public static int validateAll(CharSequence[] in, BitSet validOut, long[] digitsOut) {
+		return Digits.validateAll(in, validOut, null, digitsOut, Long.MAX_VALUE, Cpf::validDigits);
+	}
+
+	public static int validateAll(List<? extends CharSequence> in, BitSet validOut) {
+		return validateAll(in, validOut, null);
+	}
+
+	public static int validateAll(List<? extends CharSequence> in, BitSet validOut, long[] digitsOut) {
+		return Digits.validateAll(in, validOut, null, digitsOut, Long.MAX_VALUE, Cpf::validDigits);
+	}
+
+	static long validDigits(CharSequence value) {
+		if (value == null) {
+			return -1;
 		}
+		long digits = Digits.parse(value, 11);
+		return digits >= 0 && isValid(digits) ? digits : -1;
+	}
+
+	static boolean isValid(long digits) {
+		return check(digits) == null;
 	}
 
-	static int somaPonderada(String digits) {
-		char[] cs = digits.toCharArray();
-		int soma = 0;
-		for (int i = 0; i < cs.length; i++) {
-			soma += Character.digit(cs[i], 10) * (cs.length - i);
+	static ParseError check(long digits) {
+		if (Digits.isRepeated(digits, 11)) {
+			return ParseError.REPEATED_DIGITS;
+		}
+		long n = digits;
+		int segundoDigito = (int) (n % 10);
+		n /= 10;
+		int primeiroDigito = (int) (n % 10);
+		int soma10 = 0;
+		int soma11 = segundoDigito;
+		for (int peso = 1; peso <= 10; peso++) {
+			int digit = (int) (n % 10);
+			soma10 += digit * peso;
+			soma11 += digit * (peso + 1);
+			n /= 10;
+		}
+		if (!Digits.isCheckDigitValid(soma10, primeiroDigito)) {
+			return ParseError.FIRST_CHECK_DIGIT;
 		}
-		return soma;
+		if (!Digits.isCheckDigitValid(soma11, segundoDigito)) {
+			return ParseError.SECOND_CHECK_DIGIT;
+		}
+		return null;
+	}
+
+	public long toLong() {
+		return value;
 	}
 
 	@Override
 	public boolean equals(Object obj) {
 		if (obj instanceof Cpf) {
 			Cpf other = (Cpf) obj;
-			return Objects.equals(this.value, other.value);
+			return this.value == other.value;
 		}
 		return false;
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(this.value);
+		return Long.hashCode(this.value);
 	}
 
 	@Override
 	public String toString() {
-		return this.value;
+		return Digits.toString(value, 11);
 	}
 
 	@Override
 	public void formatTo(Formatter formatter, int flags, int width, int precision) {
-		StringBuilder sb = new StringBuilder();
-		boolean alternate = (flags & ALTERNATE) == ALTERNATE;
-		if (alternate) {
-			sb.append(value);
-		}
-		else {
-			sb.append(String.format("%s.%s.%s-%s", value.substring(0, 3), value.substring(3, 6),
-					value.substring(6, 9), value.substring(9)));
+		Digits.formatTo(formatter, flags, width, value, 11, MASCARA);
+	}
+
+	public <A extends Appendable> A appendTo(A appendable, boolean masked) throws IOException {
+		checkNotNull(appendable);
+		return Digits.append(value, 11, masked ? MASCARA : null, appendable);
+	}
+
+	public StringBuilder appendTo(StringBuilder builder, boolean masked) {
+		checkNotNull(builder);
+		try {
+			return Digits.append(value, 11, masked ? MASCARA : null, builder);
 		}
-		int length = sb.length();
-		if (length < width) {
-			for (int i = 0; i < width - length; i++) {
-				if (alternate) {
-					sb.insert(0, '0');
-				}
-				else {
-					boolean leftJustified = (flags & LEFT_JUSTIFY) == LEFT_JUSTIFY;
-					if (leftJustified) {
-						sb.append(' ');
-					}
-					else {
-						sb.insert(0, ' ');
-					}
-				}
-			}
+		catch (IOException ex) {
+			throw new AssertionError(ex);
 		}
-		formatter.format(sb.toString());
+	}
+
+	public int writeTo(char[] dest, int offset, boolean masked) {
+		checkNotNull(dest);
+		return Digits.write(value, 11, masked ? MASCARA : null, dest, offset);
 	}
 
 	@Override
 	public int compareTo(Cpf o) {
-		return ComparisonChain.start().compare(this.value, o.value).result();
+		return Long.compare(this.value, o.value);
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		throw new InvalidObjectException("Proxy required");
+	}
+
+	private Object writeReplace() {
+		return new Ser(this);
 	}
 
 }
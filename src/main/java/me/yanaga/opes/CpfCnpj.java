@@ -20,18 +20,19 @@ package me.yanaga.opes;
  * #L%
  */
 
-import com.google.common.base.Objects;
-import com.google.common.collect.ComparisonChain;
-import com.google.common.collect.Ordering;
-
 import java.io.IOException;
 import java.io.InvalidObjectException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
 import java.util.Formattable;
 import java.util.Formatter;
+import java.util.List;
 import java.util.Optional;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 
@@ -39,79 +40,233 @@ public class CpfCnpj implements Serializable, Formattable, Comparable<CpfCnpj> {
 
 	private static final long serialVersionUID = 1L;
 
-	private final Optional<Cpf> cpf;
-
-	private final Optional<Cnpj> cnpj;
+	private static final long CNPJ_OFFSET = 100_000_000_000L;
 
-	private CpfCnpj(Cpf cpf) {
-		this.cpf = Optional.of(cpf);
-		this.cnpj = Optional.empty();
-	}
+	private final long value;
 
-	private CpfCnpj(Cnpj cnpj) {
-		this.cpf = Optional.empty();
-		this.cnpj = Optional.of(cnpj);
+	private CpfCnpj(long value) {
+		this.value = value;
 	}
 
 	public static CpfCnpj of(String value) {
 		checkNotNull(value);
-		String digits = value.replaceAll("\\D", "");
-		if (digits.matches("\\d{11}")) {
-			return new CpfCnpj(Cpf.of(digits));
+		long digits = Digits.parse(value, 11);
+		if (digits >= 0) {
+			return ofCpf(digits);
 		}
-		else if (digits.matches("\\d{14}")) {
-			return new CpfCnpj(Cnpj.of(digits));
+		digits = Digits.parse(value, 14);
+		if (digits >= 0) {
+			return ofCnpj(digits);
 		}
 		throw new IllegalArgumentException(String.format("CPF/CNPJ inv\u00e1lido: %s.", value));
 	}
 
+	public static CpfCnpj of(CharSequence value, int start, int end) {
+		checkNotNull(value);
+		long digits = Digits.parse(value, start, end, 11);
+		if (digits >= 0) {
+			return ofCpf(digits);
+		}
+		digits = Digits.parse(value, start, end, 14);
+		if (digits >= 0) {
+			return ofCnpj(digits);
+		}
+		throw new IllegalArgumentException(String.format("CPF/CNPJ inv\u00e1lido: %s.", value.subSequence(start, end)));
+	}
+
+	public static CpfCnpj of(byte[] bytes, int offset, int length) {
+		checkNotNull(bytes);
+		long digits = Digits.parse(bytes, offset, length, 11);
+		if (digits >= 0) {
+			return ofCpf(digits);
+		}
+		digits = Digits.parse(bytes, offset, length, 14);
+		if (digits >= 0) {
+			return ofCnpj(digits);
+		}
+		throw new IllegalArgumentException(String.format("CPF/CNPJ inv\u00e1lido: %s.",
+				new String(bytes, offset, length, StandardCharsets.UTF_8)));
+	}
+
+	public static CpfCnpj of(ByteBuffer buffer) {
+		checkNotNull(buffer);
+		long digits = Digits.parse(buffer, 11);
+		if (digits >= 0) {
+			return ofCpf(digits);
+		}
+		digits = Digits.parse(buffer, 14);
+		if (digits >= 0) {
+			return ofCnpj(digits);
+		}
+		throw new IllegalArgumentException(String.format("CPF/CNPJ inv\u00e1lido: %s.",
+				StandardCharsets.UTF_8.decode(buffer.duplicate())));
+	}
+
+	static CpfCnpj ofValidated(long digits, boolean cnpj) {
+		return new CpfCnpj(cnpj ? digits + CNPJ_OFFSET : digits);
+	}
+
+	private static CpfCnpj ofCpf(long digits) {
+		checkArgument(Cpf.isValid(digits));
+		return new CpfCnpj(digits);
+	}
+
+	private static CpfCnpj ofCnpj(long digits) {
+		checkArgument(Cnpj.isValid(digits));
+		return new CpfCnpj(digits + CNPJ_OFFSET);
+	}
+
+	public static ParseResult<CpfCnpj> tryParse(String value) {
+		checkNotNull(value);
+		long digits = Digits.parse(value, 11);
+		if (digits >= 0) {
+			ParseError error = Cpf.check(digits);
+			return error == null ? ParseResult.success(new CpfCnpj(digits)) : ParseResult.failure(error);
+		}
+		digits = Digits.parse(value, 14);
+		if (digits >= 0) {
+			ParseError error = Cnpj.check(digits);
+			return error == null ? ParseResult.success(new CpfCnpj(digits + CNPJ_OFFSET)) : ParseResult.failure(error);
+		}
+		return ParseResult.failure(ParseError.WRONG_LENGTH);
+	}
+
+	public static int validateAll(CharSequence[] in, BitSet validOut) {
+		return validateAll(in, validOut, null, null);
+	}
+
+	public static int validateAll(CharSequence[] in, BitSet validOut, BitSet cnpjOut, long[] digitsOut) {
+		return Digits.validateAll(in, validOut, cnpjOut, digitsOut, CNPJ_OFFSET, CpfCnpj::validEncoded);
+	}
+
+	public static int validateAll(List<? extends CharSequence> in, BitSet validOut) {
+		return validateAll(in, validOut, null, null);
+	}
+
+	public static int validateAll(List<? extends CharSequence> in, BitSet validOut, BitSet cnpjOut, long[] digitsOut) {
+		return Digits.validateAll(in, validOut, cnpjOut, digitsOut, CNPJ_OFFSET, CpfCnpj::validEncoded);
+	}
+
+	static long validEncoded(CharSequence value) {
+		long digits = 0;
+		int count = 0;
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c >= '0' && c <= '9') {
+				if (++count > 14) {
+					return -1;
+				}
+				digits = digits * 10 + (c - '0');
+			}
+		}
+		if (count == 11) {
+			return Cpf.isValid(digits) ? digits : -1;
+		}
+		if (count == 14) {
+			return Cnpj.isValid(digits) ? digits + CNPJ_OFFSET : -1;
+		}
+		return -1;
+	}
+
 	@Override
 	public boolean equals(Object obj) {
 		if (obj instanceof CpfCnpj) {
 			CpfCnpj other = (CpfCnpj) obj;
-			return Objects.equal(this.cpf, other.cpf) && Objects.equal(this.cnpj, other.cnpj);
+			return this.value == other.value;
 		}
 		return false;
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hashCode(this.cpf, this.cnpj);
+		return Long.hashCode(value);
 	}
 
 	@Override
 	public String toString() {
-		return cpf.map(Cpf::toString).orElseGet(() -> cnpj.map(Cnpj::toString).get());
+		return isCpf() ? Digits.toString(value, 11) : Digits.toString(value - CNPJ_OFFSET, 14);
 	}
 
 	@Override
 	public void formatTo(Formatter formatter, int flags, int width, int precision) {
-		cpf.ifPresent(cpf -> cpf.formatTo(formatter, flags, width, precision));
-		cnpj.ifPresent(cnpj -> cnpj.formatTo(formatter, flags, width, precision));
+		if (isCpf()) {
+			Digits.formatTo(formatter, flags, width, value, 11, Cpf.MASCARA);
+		}
+		else {
+			Digits.formatTo(formatter, flags, width, value - CNPJ_OFFSET, 14, Cnpj.MASCARA);
+		}
+	}
+
+	public <A extends Appendable> A appendTo(A appendable, boolean masked) throws IOException {
+		checkNotNull(appendable);
+		if (isCpf()) {
+			return Digits.append(value, 11, masked ? Cpf.MASCARA : null, appendable);
+		}
+		return Digits.append(value - CNPJ_OFFSET, 14, masked ? Cnpj.MASCARA : null, appendable);
+	}
+
+	public StringBuilder appendTo(StringBuilder builder, boolean masked) {
+		checkNotNull(builder);
+		try {
+			appendTo((Appendable) builder, masked);
+			return builder;
+		}
+		catch (IOException ex) {
+			throw new AssertionError(ex);
+		}
+	}
+
+	public int writeTo(char[] dest, int offset, boolean masked) {
+		checkNotNull(dest);
+		if (isCpf()) {
+			return Digits.write(value, 11, masked ? Cpf.MASCARA : null, dest, offset);
+		}
+		return Digits.write(value - CNPJ_OFFSET, 14, masked ? Cnpj.MASCARA : null, dest, offset);
 	}
 
 	@Override
 	public int compareTo(CpfCnpj o) {
-		return ComparisonChain.start()
-				.compare(this.cpf.orElse(null), o.cpf.orElse(null), Ordering.natural().nullsLast())
-				.compare(this.cnpj.orElse(null), o.cnpj.orElse(null), Ordering.natural().nullsLast())
-				.result();
+		return Long.compare(this.value, o.value);
 	}
 
 	public boolean isCpf() {
-		return cpf.isPresent();
+		return value < CNPJ_OFFSET;
 	}
 
 	public boolean isCnpj() {
-		return cnpj.isPresent();
+		return value >= CNPJ_OFFSET;
+	}
+
+	public TipoPessoa getTipoPessoa() {
+		return isCpf() ? TipoPessoa.FISICA : TipoPessoa.JURIDICA;
 	}
 
 	public Optional<Cpf> getCpf() {
-		return cpf;
+		return isCpf() ? Optional.of(Cpf.ofValidated(value)) : Optional.empty();
 	}
 
 	public Optional<Cnpj> getCnpj() {
-		return cnpj;
+		return isCnpj() ? Optional.of(Cnpj.ofValidated(value - CNPJ_OFFSET)) : Optional.empty();
+	}
+
+	long toEncoded() {
+		return value;
+	}
+
+	static boolean isEncoded(long value) {
+		return value >= 0 && value < CNPJ_OFFSET + 100_000_000_000_000L;
+	}
+
+	static boolean isValidEncoded(long value) {
+		return value < CNPJ_OFFSET ? Cpf.isValid(value) : Cnpj.isValid(value - CNPJ_OFFSET);
+	}
+
+	static CpfCnpj ofEncoded(long value) {
+		return new CpfCnpj(value);
+	}
+
+	long digits() {
+		return isCpf() ? value : value - CNPJ_OFFSET;
 	}
 
 	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
@@ -119,11 +274,13 @@ public class CpfCnpj implements Serializable, Formattable, Comparable<CpfCnpj> {
 	}
 
 	private Object writeReplace() {
-		return new SerializationProxy(this.toString());
+		return new Ser(this);
 	}
 
 	private static class SerializationProxy implements Serializable {
 
+		private static final long serialVersionUID = -4195386379634113104L;
+
 		private final String value;
 
 		private SerializationProxy(String value) {
@@ -0,0 +1,260 @@
+package me.yanaga.opes;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+public final class CpfCnpjScanner {
+
+	private static final int WINDOW_SIZE = 1 << 26;
+
+	private static final int MIN_SPLIT_SIZE = 1 << 20;
+
+	private CpfCnpjScanner() {
+	}
+
+	public static Stream<Linha> lines(Path file) {
+		checkNotNull(file);
+		try {
+			FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+			try {
+				return StreamSupport.stream(new ChunkSpliterator(channel, 0, channel.size()), false)
+						.onClose(() -> close(channel));
+			}
+			catch (IOException | RuntimeException ex) {
+				channel.close();
+				throw ex;
+			}
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	private static void close(FileChannel channel) {
+		try {
+			channel.close();
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	public static final class Linha {
+
+		private final long offset;
+
+		private final long digits;
+
+		private final boolean cnpj;
+
+		private final ParseError error;
+
+		private Linha(long offset, long digits, boolean cnpj, ParseError error) {
+			this.offset = offset;
+			this.digits = digits;
+			this.cnpj = cnpj;
+			this.error = error;
+		}
+
+		public long getOffset() {
+			return offset;
+		}
+
+		public boolean isValid() {
+			return error == null;
+		}
+
+		public boolean isCnpj() {
+			return cnpj;
+		}
+
+		public long getDigits() {
+			return digits;
+		}
+
+		public ParseError getError() {
+			return error;
+		}
+
+		public Optional<CpfCnpj> getCpfCnpj() {
+			if (error != null) {
+				return Optional.empty();
+			}
+			return Optional.of(CpfCnpj.ofValidated(digits, cnpj));
+		}
+
+		@Override
+		public String toString() {
+			if (digits < 0) {
+				return String.format("%d: %s", offset, error);
+			}
+			String value = Digits.toString(digits, cnpj ? 14 : 11);
+			return error == null ? String.format("%d: %s", offset, value) : String.format("%d: %s %s", offset, value, error);
+		}
+
+	}
+
+	private static final class ChunkSpliterator implements Spliterator<Linha> {
+
+		private final FileChannel channel;
+
+		private long position;
+
+		private final long end;
+
+		private ByteBuffer window;
+
+		private long windowStart;
+
+		private int windowLimit;
+
+		ChunkSpliterator(FileChannel channel, long position, long end) {
+			this.channel = channel;
+			this.position = position;
+			this.end = end;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super Linha> action) {
+			if (position >= end) {
+				return false;
+			}
+			if (window == null || position >= windowStart + windowLimit) {
+				map();
+			}
+			int start = (int) (position - windowStart);
+			int next = start;
+			while (next < windowLimit && window.get(next) != '\n') {
+				next++;
+			}
+			int lineEnd = next;
+			if (lineEnd > start && window.get(lineEnd - 1) == '\r') {
+				lineEnd--;
+			}
+			action.accept(parse(position, window, start, lineEnd));
+			position = windowStart + Math.min(next + 1, windowLimit);
+			return true;
+		}
+
+		@Override
+		public Spliterator<Linha> trySplit() {
+			long remaining = end - position;
+			if (remaining < MIN_SPLIT_SIZE) {
+				return null;
+			}
+			long split = nextLineStart(position + remaining / 2);
+			if (split >= end) {
+				return null;
+			}
+			ChunkSpliterator prefix = new ChunkSpliterator(channel, position, split);
+			if (window != null && position < windowStart + windowLimit) {
+				prefix.window = window;
+				prefix.windowStart = windowStart;
+				prefix.windowLimit = (int) Math.min(windowLimit, split - windowStart);
+			}
+			this.position = split;
+			this.window = null;
+			return prefix;
+		}
+
+		@Override
+		public long estimateSize() {
+			return (end - position) / 16;
+		}
+
+		@Override
+		public int characteristics() {
+			return ORDERED | NONNULL | IMMUTABLE;
+		}
+
+		private void map() {
+			long size = Math.min(end - position, WINDOW_SIZE);
+			try {
+				window = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+			windowStart = position;
+			windowLimit = (int) size;
+			if (position + size < end) {
+				while (windowLimit > 0 && window.get(windowLimit - 1) != '\n') {
+					windowLimit--;
+				}
+				if (windowLimit == 0) {
+					throw new IllegalStateException(String.format("Linha excede %d bytes na posi\u00e7\u00e3o %d.",
+							WINDOW_SIZE, position));
+				}
+			}
+		}
+
+		private long nextLineStart(long from) {
+			ByteBuffer buffer = ByteBuffer.allocate(4096);
+			long offset = from - 1;
+			try {
+				while (offset < end) {
+					buffer.clear();
+					int read = channel.read(buffer, offset);
+					if (read <= 0) {
+						return end;
+					}
+					for (int i = 0; i < read; i++) {
+						if (buffer.get(i) == '\n') {
+							return Math.min(offset + i + 1, end);
+						}
+					}
+					offset += read;
+				}
+				return end;
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}
+
+	}
+
+	private static Linha parse(long offset, ByteBuffer buffer, int start, int end) {
+		long digits = Digits.parse(buffer, start, end, 11);
+		if (digits >= 0) {
+			return new Linha(offset, digits, false, Cpf.check(digits));
+		}
+		digits = Digits.parse(buffer, start, end, 14);
+		if (digits >= 0) {
+			return new Linha(offset, digits, true, Cnpj.check(digits));
+		}
+		return new Linha(offset, -1, false, ParseError.WRONG_LENGTH);
+	}
+
+}
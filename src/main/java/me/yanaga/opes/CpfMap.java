@@ -0,0 +1,57 @@
+package me.yanaga.opes;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+public final class CpfMap<V> extends AbstractDocumentMap<Cpf, V> {
+
+	public CpfMap() {
+		this(0);
+	}
+
+	public CpfMap(int expectedSize) {
+		this(expectedSize, ConcurrentLongTable.DEFAULT_CONCURRENCY_LEVEL);
+	}
+
+	public CpfMap(int expectedSize, int concurrencyLevel) {
+		super(expectedSize, concurrencyLevel);
+	}
+
+	@Override
+	boolean isDocument(Object obj) {
+		return obj instanceof Cpf;
+	}
+
+	@Override
+	long toLong(Cpf document) {
+		return document.toLong();
+	}
+
+	@Override
+	Cpf of(long digits) {
+		return Cpf.ofValidated(digits);
+	}
+
+	@Override
+	boolean isValid(long digits) {
+		return Digits.isInRange(digits, 11) && Cpf.isValid(digits);
+	}
+
+}
@@ -0,0 +1,248 @@
+package me.yanaga.opes;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Formatter;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+import static java.util.FormattableFlags.ALTERNATE;
+import static java.util.FormattableFlags.LEFT_JUSTIFY;
+
+final class Digits {
+
+	private static final long[] REPUNITS = new long[19];
+
+	private static final long[] POWERS_OF_TEN = new long[19];
+
+	static {
+		POWERS_OF_TEN[0] = 1;
+		for (int i = 1; i < REPUNITS.length; i++) {
+			REPUNITS[i] = REPUNITS[i - 1] * 10 + 1;
+			POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+		}
+	}
+
+	private Digits() {
+	}
+
+	static long parse(CharSequence value, int length) {
+		return parse(value, 0, value.length(), length);
+	}
+
+	static long parse(CharSequence value, int start, int end, int length) {
+		checkPositionIndexes(start, end, value.length());
+		long digits = 0;
+		int count = 0;
+		for (int i = start; i < end; i++) {
+			char c = value.charAt(i);
+			if (c >= '0' && c <= '9') {
+				if (++count > length) {
+					return -1;
+				}
+				digits = digits * 10 + (c - '0');
+			}
+		}
+		return count == length ? digits : -1;
+	}
+
+	static long parse(byte[] bytes, int offset, int count, int length) {
+		checkPositionIndexes(offset, offset + count, bytes.length);
+		long digits = 0;
+		int found = 0;
+		for (int i = offset; i < offset + count; i++) {
+			byte b = bytes[i];
+			if (b >= '0' && b <= '9') {
+				if (++found > length) {
+					return -1;
+				}
+				digits = digits * 10 + (b - '0');
+			}
+		}
+		return found == length ? digits : -1;
+	}
+
+	static long parse(ByteBuffer buffer, int length) {
+		return parse(buffer, buffer.position(), buffer.limit(), length);
+	}
+
+	static long parse(ByteBuffer buffer, int start, int end, int length) {
+		long digits = 0;
+		int found = 0;
+		for (int i = start; i < end; i++) {
+			byte b = buffer.get(i);
+			if (b >= '0' && b <= '9') {
+				if (++found > length) {
+					return -1;
+				}
+				digits = digits * 10 + (b - '0');
+			}
+		}
+		return found == length ? digits : -1;
+	}
+
+	static boolean isInRange(long digits, int length) {
+		return digits >= 0 && digits < POWERS_OF_TEN[length];
+	}
+
+	static boolean isRepeated(long digits, int length) {
+		return digits == (digits % 10) * REPUNITS[length];
+	}
+
+	static boolean isCheckDigitValid(int somaPonderada, int checkDigit) {
+		if (checkDigit == 0) {
+			return somaPonderada % 11 < 2;
+		}
+		else {
+			return somaPonderada % 11 == 0;
+		}
+	}
+
+	static int write(long digits, int length, String mask, char[] dest, int offset) {
+		int size = mask == null ? length : mask.length();
+		checkPositionIndexes(offset, offset + size, dest.length);
+		for (int i = offset + size - 1; i >= offset; i--) {
+			char c = mask == null ? '#' : mask.charAt(i - offset);
+			if (c == '#') {
+				dest[i] = (char) ('0' + digits % 10);
+				digits /= 10;
+			}
+			else {
+				dest[i] = c;
+			}
+		}
+		return offset + size;
+	}
+
+	static int write(long digits, int length, String mask, byte[] dest, int offset) {
+		int size = mask == null ? length : mask.length();
+		for (int i = offset + size - 1; i >= offset; i--) {
+			char c = mask == null ? '#' : mask.charAt(i - offset);
+			if (c == '#') {
+				dest[i] = (byte) ('0' + digits % 10);
+				digits /= 10;
+			}
+			else {
+				dest[i] = (byte) c;
+			}
+		}
+		return offset + size;
+	}
+
+	static <A extends Appendable> A append(long digits, int length, String mask, A appendable) throws IOException {
+		int digit = length - 1;
+		int size = mask == null ? length : mask.length();
+		for (int i = 0; i < size; i++) {
+			char c = mask == null ? '#' : mask.charAt(i);
+			if (c == '#') {
+				appendable.append((char) ('0' + (digits / POWERS_OF_TEN[digit--]) % 10));
+			}
+			else {
+				appendable.append(c);
+			}
+		}
+		return appendable;
+	}
+
+	static void formatTo(Formatter formatter, int flags, int width, long digits, int length, String mask) {
+		boolean alternate = (flags & ALTERNATE) == ALTERNATE;
+		int padding = width - (alternate ? length : mask.length());
+		Appendable out = formatter.out();
+		try {
+			if (alternate) {
+				pad(out, '0', padding);
+				append(digits, length, null, out);
+			}
+			else if ((flags & LEFT_JUSTIFY) == LEFT_JUSTIFY) {
+				append(digits, length, mask, out);
+				pad(out, ' ', padding);
+			}
+			else {
+				pad(out, ' ', padding);
+				append(digits, length, mask, out);
+			}
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	private static void pad(Appendable out, char c, int count) throws IOException {
+		for (int i = 0; i < count; i++) {
+			out.append(c);
+		}
+	}
+
+	static int validateAll(CharSequence[] in, BitSet validOut, BitSet taggedOut, long[] digitsOut, long tag,
+			ToLongFunction<CharSequence> validator) {
+		checkNotNull(in);
+		return validateAll(Arrays.asList(in), validOut, taggedOut, digitsOut, tag, validator);
+	}
+
+	static int validateAll(List<? extends CharSequence> in, BitSet validOut, BitSet taggedOut, long[] digitsOut,
+			long tag, ToLongFunction<CharSequence> validator) {
+		checkNotNull(in);
+		checkNotNull(validOut);
+		checkArgument(digitsOut == null || digitsOut.length >= in.size());
+		int valid = 0;
+		int i = 0;
+		for (CharSequence value : in) {
+			long digits = value != null ? validator.applyAsLong(value) : -1;
+			boolean tagged = digits >= tag;
+			if (tagged) {
+				digits -= tag;
+			}
+			if (digits >= 0) {
+				validOut.set(i);
+				valid++;
+			}
+			else {
+				validOut.clear(i);
+			}
+			if (taggedOut != null) {
+				taggedOut.set(i, tagged);
+			}
+			if (digitsOut != null) {
+				digitsOut[i] = digits;
+			}
+			i++;
+		}
+		return valid;
+	}
+
+	static String toString(long digits, int length) {
+		char[] cs = new char[length];
+		for (int i = length - 1; i >= 0; i--) {
+			cs[i] = (char) ('0' + digits % 10);
+			digits /= 10;
+		}
+		return new String(cs);
+	}
+
+}
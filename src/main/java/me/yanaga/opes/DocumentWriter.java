@@ -0,0 +1,283 @@
+package me.yanaga.opes;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+import static java.util.FormattableFlags.ALTERNATE;
+import static java.util.FormattableFlags.LEFT_JUSTIFY;
+
+public final class DocumentWriter implements Closeable, Flushable {
+
+	private static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+	private final WritableByteChannel channel;
+
+	private final ByteBuffer buffer;
+
+	private boolean masked = true;
+
+	private int flags;
+
+	private int width;
+
+	private byte[] lineSeparator = { '\n' };
+
+	private byte[] scratch = new byte[32];
+
+	private DocumentWriter(WritableByteChannel channel, ByteBuffer buffer) {
+		this.channel = channel;
+		this.buffer = buffer;
+	}
+
+	public static DocumentWriter to(WritableByteChannel channel) {
+		checkNotNull(channel);
+		return new DocumentWriter(channel, ByteBuffer.allocateDirect(DEFAULT_BUFFER_SIZE));
+	}
+
+	public static DocumentWriter to(ByteBuffer buffer) {
+		checkNotNull(buffer);
+		return new DocumentWriter(null, buffer);
+	}
+
+	public DocumentWriter masked(boolean masked) {
+		this.masked = masked;
+		return this;
+	}
+
+	public DocumentWriter width(int width, int flags) {
+		checkArgument(width >= 0);
+		checkArgument((flags & ~(ALTERNATE | LEFT_JUSTIFY)) == 0);
+		this.width = width;
+		this.flags = flags;
+		if (scratch.length < width) {
+			scratch = new byte[width];
+		}
+		return this;
+	}
+
+	public DocumentWriter lineSeparator(String lineSeparator) {
+		checkNotNull(lineSeparator);
+		this.lineSeparator = ascii(lineSeparator);
+		return this;
+	}
+
+	public DocumentWriter write(Cpf cpf) {
+		checkNotNull(cpf);
+		return field(cpf.toLong(), 11, Cpf.MASCARA);
+	}
+
+	public DocumentWriter write(Cnpj cnpj) {
+		checkNotNull(cnpj);
+		return field(cnpj.toLong(), 14, Cnpj.MASCARA);
+	}
+
+	public DocumentWriter write(Cns cns) {
+		checkNotNull(cns);
+		return field(cns.toLong(), 15, Cns.MASCARA);
+	}
+
+	public DocumentWriter write(Cep cep) {
+		checkNotNull(cep);
+		return field(cep.toInt(), 8, Cep.MASCARA);
+	}
+
+	public DocumentWriter write(CpfCnpj cpfCnpj) {
+		checkNotNull(cpfCnpj);
+		return cpfCnpj.isCpf()
+				? field(cpfCnpj.digits(), 11, Cpf.MASCARA)
+				: field(cpfCnpj.digits(), 14, Cnpj.MASCARA);
+	}
+
+	public DocumentWriter write(char c) {
+		checkArgument(c < 0x80, "Caractere n\u00e3o ASCII: %s.", c);
+		reserve(1);
+		buffer.put((byte) c);
+		return this;
+	}
+
+	public DocumentWriter write(CharSequence text) {
+		checkNotNull(text);
+		return put(ascii(text));
+	}
+
+	public DocumentWriter newLine() {
+		return put(lineSeparator);
+	}
+
+	public DocumentWriter writeCpfs(long[] digits, int offset, int length) {
+		checkNotNull(digits);
+		checkPositionIndexes(offset, offset + length, digits.length);
+		for (int i = offset; i < offset + length; i++) {
+			checkArgument(Digits.isInRange(digits[i], 11) && Cpf.isValid(digits[i]), "CPF inv\u00e1lido: %s.", digits[i]);
+			field(digits[i], 11, Cpf.MASCARA).newLine();
+		}
+		return this;
+	}
+
+	public DocumentWriter writeCnpjs(long[] digits, int offset, int length) {
+		checkNotNull(digits);
+		checkPositionIndexes(offset, offset + length, digits.length);
+		for (int i = offset; i < offset + length; i++) {
+			checkArgument(Digits.isInRange(digits[i], 14) && Cnpj.isValid(digits[i]), "CNPJ inv\u00e1lido: %s.", digits[i]);
+			field(digits[i], 14, Cnpj.MASCARA).newLine();
+		}
+		return this;
+	}
+
+	public DocumentWriter writeCnss(long[] digits, int offset, int length) {
+		checkNotNull(digits);
+		checkPositionIndexes(offset, offset + length, digits.length);
+		for (int i = offset; i < offset + length; i++) {
+			checkArgument(Digits.isInRange(digits[i], 15) && Cns.isValid(digits[i]), "CNS inv\u00e1lido: %s.", digits[i]);
+			field(digits[i], 15, Cns.MASCARA).newLine();
+		}
+		return this;
+	}
+
+	public DocumentWriter writeCpfs(Iterable<Cpf> cpfs) {
+		checkNotNull(cpfs);
+		for (Cpf cpf : cpfs) {
+			write(cpf).newLine();
+		}
+		return this;
+	}
+
+	public DocumentWriter writeCnpjs(Iterable<Cnpj> cnpjs) {
+		checkNotNull(cnpjs);
+		for (Cnpj cnpj : cnpjs) {
+			write(cnpj).newLine();
+		}
+		return this;
+	}
+
+	public DocumentWriter writeCnss(Iterable<Cns> cnss) {
+		checkNotNull(cnss);
+		for (Cns cns : cnss) {
+			write(cns).newLine();
+		}
+		return this;
+	}
+
+	public DocumentWriter writeCpfCnpjs(Iterable<CpfCnpj> cpfCnpjs) {
+		checkNotNull(cpfCnpjs);
+		for (CpfCnpj cpfCnpj : cpfCnpjs) {
+			write(cpfCnpj).newLine();
+		}
+		return this;
+	}
+
+	@Override
+	public void flush() {
+		if (channel != null) {
+			buffer.flip();
+			try {
+				while (buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+			finally {
+				buffer.compact();
+			}
+		}
+	}
+
+	@Override
+	public void close() {
+		if (channel != null) {
+			try {
+				flush();
+			}
+			finally {
+				try {
+					channel.close();
+				}
+				catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+			}
+		}
+	}
+
+	private DocumentWriter field(long digits, int length, String mask) {
+		boolean alternate = (flags & ALTERNATE) == ALTERNATE;
+		String mascara = masked && !alternate ? mask : null;
+		int size = mascara == null ? length : mascara.length();
+		int padding = Math.max(width - size, 0);
+		int start = alternate || (flags & LEFT_JUSTIFY) == 0 ? padding : 0;
+		Arrays.fill(scratch, 0, start, alternate ? (byte) '0' : (byte) ' ');
+		int end = Digits.write(digits, length, mascara, scratch, start);
+		Arrays.fill(scratch, end, size + padding, (byte) ' ');
+		return put(scratch, 0, size + padding);
+	}
+
+	private DocumentWriter put(byte[] bytes) {
+		return put(bytes, 0, bytes.length);
+	}
+
+	private DocumentWriter put(byte[] bytes, int offset, int length) {
+		if (channel == null || length <= buffer.capacity()) {
+			reserve(length);
+			buffer.put(bytes, offset, length);
+		}
+		else {
+			for (int i = offset; i < offset + length; i += buffer.capacity()) {
+				int count = Math.min(offset + length - i, buffer.capacity());
+				reserve(count);
+				buffer.put(bytes, i, count);
+			}
+		}
+		return this;
+	}
+
+	private void reserve(int count) {
+		if (buffer.remaining() < count) {
+			if (channel == null) {
+				throw new BufferOverflowException();
+			}
+			flush();
+		}
+	}
+
+	private static byte[] ascii(CharSequence text) {
+		byte[] bytes = new byte[text.length()];
+		for (int i = 0; i < bytes.length; i++) {
+			char c = text.charAt(i);
+			checkArgument(c < 0x80, "Caractere n\u00e3o ASCII: %s.", c);
+			bytes[i] = (byte) c;
+		}
+		return bytes;
+	}
+
+}
@@ -20,64 +20,288 @@ package me.yanaga.opes;
  * #L%
  */
 
-import com.google.common.collect.ComparisonChain;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
-import java.util.Objects;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 public class Email implements Serializable, Comparable<Email> {
 
-	private static final long serialVersionUID = 1L;
+	private static final long serialVersionUID = 2L;
 
-	private static final String ATOM = "[a-z0-9!#$%&'*+/=?^_`{|}~-]";
+	private static final String ATOM_CHARS = "!#$%&'*+/=?^_`{|}~-";
 
-	private static final String DOMAIN = "(" + ATOM + "+(\\." + ATOM + "+)*";
+	private static final boolean[] ATOM = new boolean[128];
 
-	private static final String IP_DOMAIN = "\\[[0-9]{1,3}\\.[0-9]{1,3}\\.[0-9]{1,3}\\.[0-9]{1,3}\\]";
+	static {
+		for (char c = 'a'; c <= 'z'; c++) {
+			ATOM[c] = true;
+			ATOM[Character.toUpperCase(c)] = true;
+		}
+		for (char c = '0'; c <= '9'; c++) {
+			ATOM[c] = true;
+		}
+		for (int i = 0; i < ATOM_CHARS.length(); i++) {
+			ATOM[ATOM_CHARS.charAt(i)] = true;
+		}
+	}
+
+	private static final Interner<String> DOMINIOS = Interners.newWeakInterner();
+
+	private static final String GMAIL = "gmail.com";
+
+	private static final String GOOGLEMAIL = "googlemail.com";
+
+	private static final String OUTLOOK = "outlook.com";
+
+	private static final String HOTMAIL = "hotmail.com";
+
+	private static final String LIVE = "live.com";
 
-	private static final Pattern pattern = Pattern.compile("^" + ATOM + "+(\\." + ATOM + "+)*@" + DOMAIN + "|"
-			+ IP_DOMAIN + ")$", Pattern.CASE_INSENSITIVE);
+	private static final String ICLOUD = "icloud.com";
 
-	private final String value;
+	private final String local;
+
+	private final String dominio;
+
+	private Email(String local, String dominio) {
+		this.local = local;
+		this.dominio = dominio;
+	}
+
+	public enum Normalizacao {
+
+		DOMINIO,
+
+		PROVEDOR
 
-	private Email(String value) {
-		this.value = value;
 	}
 
 	public static Email of(String value) {
+		return of(value, Normalizacao.DOMINIO);
+	}
+
+	public static Email of(String value, Normalizacao normalizacao) {
 		checkNotNull(value);
-		Matcher m = pattern.matcher(value);
-		checkArgument(m.matches());
-		return new Email(value);
+		checkNotNull(normalizacao);
+		int arroba = arroba(value);
+		checkArgument(arroba >= 0);
+		return create(value, arroba, normalizacao);
+	}
+
+	public static ParseResult<Email> tryParse(String value) {
+		return tryParse(value, Normalizacao.DOMINIO);
+	}
+
+	public static ParseResult<Email> tryParse(String value, Normalizacao normalizacao) {
+		checkNotNull(value);
+		checkNotNull(normalizacao);
+		int arroba = arroba(value);
+		if (arroba < 0) {
+			return ParseResult.failure(ParseError.MALFORMED_EMAIL);
+		}
+		return ParseResult.success(create(value, arroba, normalizacao));
+	}
+
+	static Email ofValidated(String local, String dominio) {
+		return new Email(local, dominio);
+	}
+
+	private static Email create(String value, int arroba, Normalizacao normalizacao) {
+		String dominio = DOMINIOS.intern(toLowerCase(value, arroba + 1, value.length()));
+		String local = value.substring(0, arroba);
+		if (normalizacao == Normalizacao.PROVEDOR) {
+			if (dominio.equals(GMAIL) || dominio.equals(GOOGLEMAIL)) {
+				return new Email(canonical(local, true), GMAIL);
+			}
+			if (dominio.equals(OUTLOOK) || dominio.equals(HOTMAIL) || dominio.equals(LIVE) || dominio.equals(ICLOUD)) {
+				return new Email(canonical(local, false), dominio);
+			}
+		}
+		return new Email(local, dominio);
+	}
+
+	private static String canonical(String local, boolean ignoreDots) {
+		int tag = local.indexOf('+');
+		int end = tag > 0 ? tag : local.length();
+		StringBuilder sb = new StringBuilder(end);
+		for (int i = 0; i < end; i++) {
+			char c = local.charAt(i);
+			if (c != '.' || !ignoreDots) {
+				sb.append(c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c);
+			}
+		}
+		return sb.toString();
+	}
+
+	static String toLowerCase(String value, int start, int end) {
+		for (int i = start; i < end; i++) {
+			char c = value.charAt(i);
+			if (c >= 'A' && c <= 'Z') {
+				char[] chars = value.substring(start, end).toCharArray();
+				for (int j = i - start; j < chars.length; j++) {
+					c = chars[j];
+					if (c >= 'A' && c <= 'Z') {
+						chars[j] = (char) (c + ('a' - 'A'));
+					}
+				}
+				return new String(chars);
+			}
+		}
+		return value.substring(start, end);
+	}
+
+	static boolean isValid(CharSequence value) {
+		return arroba(value) >= 0;
+	}
+
+	private static int arroba(CharSequence value) {
+		int length = value.length();
+		int arroba = dotAtom(value, 0, length);
+		if (arroba < 0 || arroba >= length || value.charAt(arroba) != '@') {
+			return -1;
+		}
+		int i = arroba + 1;
+		if (i < length && value.charAt(i) == '[') {
+			return ipDomain(value, i + 1, length) ? arroba : -1;
+		}
+		return dotAtom(value, i, length) == length ? arroba : -1;
+	}
+
+	private static int dotAtom(CharSequence value, int start, int end) {
+		int i = start;
+		while (true) {
+			int atomStart = i;
+			while (i < end && isAtom(value.charAt(i))) {
+				i++;
+			}
+			if (i == atomStart) {
+				return -1;
+			}
+			if (i < end && value.charAt(i) == '.') {
+				i++;
+			}
+			else {
+				return i;
+			}
+		}
+	}
+
+	private static boolean ipDomain(CharSequence value, int start, int end) {
+		int i = start;
+		for (int octeto = 0; octeto < 4; octeto++) {
+			if (octeto > 0) {
+				if (i >= end || value.charAt(i) != '.') {
+					return false;
+				}
+				i++;
+			}
+			int digitsStart = i;
+			while (i < end && i - digitsStart < 3 && isDigit(value.charAt(i))) {
+				i++;
+			}
+			if (i == digitsStart) {
+				return false;
+			}
+		}
+		return i == end - 1 && value.charAt(i) == ']';
+	}
+
+	private static boolean isAtom(char c) {
+		return c < 128 && ATOM[c];
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	public String getLocal() {
+		return local;
+	}
+
+	public String getDominio() {
+		return dominio;
 	}
 
 	@Override
 	public boolean equals(Object obj) {
 		if (obj instanceof Email) {
 			Email other = (Email) obj;
-			return Objects.equals(this.value, other.value);
+			return this.local.equals(other.local) && this.dominio.equals(other.dominio);
 		}
 		return false;
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(this.value);
+		return 31 * local.hashCode() + dominio.hashCode();
 	}
 
 	@Override
 	public String toString() {
-		return value;
+		return new StringBuilder(local.length() + 1 + dominio.length()).append(local).append('@').append(dominio).toString();
 	}
 
 	@Override
 	public int compareTo(Email o) {
-		return ComparisonChain.start().compare(this.value, o.value).result();
+		if (this.dominio.equals(o.dominio)) {
+			int result = this.local.compareTo(o.local);
+			if (result == 0 || (!this.local.startsWith(o.local) && !o.local.startsWith(this.local))) {
+				return result;
+			}
+		}
+		String dominio1 = this.dominio;
+		String dominio2 = o.dominio;
+		int length1 = this.local.length() + 1 + dominio1.length();
+		int length2 = o.local.length() + 1 + dominio2.length();
+		for (int i = 0, n = Math.min(length1, length2); i < n; i++) {
+			char c1 = charAt(this.local, dominio1, i);
+			char c2 = charAt(o.local, dominio2, i);
+			if (c1 != c2) {
+				return c1 - c2;
+			}
+		}
+		return length1 - length2;
+	}
+
+	private static char charAt(String local, String dominio, int index) {
+		if (index < local.length()) {
+			return local.charAt(index);
+		}
+		if (index == local.length()) {
+			return '@';
+		}
+		return dominio.charAt(index - local.length() - 1);
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		throw new InvalidObjectException("Proxy required");
+	}
+
+	private Object writeReplace() {
+		return new SerializationProxy(toString());
+	}
+
+	private static class SerializationProxy implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final String value;
+
+		SerializationProxy(String value) {
+			this.value = value;
+		}
+
+		private Object readResolve() {
+			return Email.of(value);
+		}
+
 	}
 
 }
@@ -0,0 +1,184 @@
+package me.yanaga.opes;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+public final class EmailSet extends AbstractSet<Email> {
+
+	private final ConcurrentHashMap<String, Set<String>> locais = new ConcurrentHashMap<>();
+
+	public EmailSet() {
+	}
+
+	@Override
+	public boolean add(Email email) {
+		checkNotNull(email);
+		return locais(email.getDominio()).add(email.getLocal());
+	}
+
+	public int addAll(Iterable<String> values, Email.Normalizacao normalizacao) {
+		checkNotNull(values);
+		checkNotNull(normalizacao);
+		int added = 0;
+		for (String value : values) {
+			if (value != null) {
+				ParseResult<Email> result = Email.tryParse(value, normalizacao);
+				if (result.isValid() && add(result.get())) {
+					added++;
+				}
+			}
+		}
+		return added;
+	}
+
+	void addAll(EmailSet other) {
+		for (Map.Entry<String, Set<String>> entry : other.locais.entrySet()) {
+			if (!entry.getValue().isEmpty()) {
+				locais(entry.getKey()).addAll(entry.getValue());
+			}
+		}
+	}
+
+	@Override
+	public boolean contains(Object obj) {
+		if (obj instanceof Email) {
+			Email email = (Email) obj;
+			Set<String> set = locais.get(email.getDominio());
+			return set != null && set.contains(email.getLocal());
+		}
+		return false;
+	}
+
+	@Override
+	public boolean remove(Object obj) {
+		if (obj instanceof Email) {
+			Email email = (Email) obj;
+			Set<String> set = locais.get(email.getDominio());
+			return set != null && set.remove(email.getLocal());
+		}
+		return false;
+	}
+
+	@Override
+	public int size() {
+		int size = 0;
+		for (Set<String> set : locais.values()) {
+			size += set.size();
+		}
+		return size;
+	}
+
+	@Override
+	public void clear() {
+		for (Set<String> set : locais.values()) {
+			set.clear();
+		}
+	}
+
+	public Set<String> getDominios() {
+		Set<String> result = new TreeSet<>();
+		for (Map.Entry<String, Set<String>> entry : locais.entrySet()) {
+			if (!entry.getValue().isEmpty()) {
+				result.add(entry.getKey());
+			}
+		}
+		return result;
+	}
+
+	public Set<String> getLocais(String dominio) {
+		checkNotNull(dominio);
+		Set<String> set = locais.get(Email.toLowerCase(dominio, 0, dominio.length()));
+		return set != null ? Collections.unmodifiableSet(set) : Collections.emptySet();
+	}
+
+	public Map<String, Integer> countingByDominio() {
+		Map<String, Integer> result = new HashMap<>();
+		for (Map.Entry<String, Set<String>> entry : locais.entrySet()) {
+			if (!entry.getValue().isEmpty()) {
+				result.put(entry.getKey(), entry.getValue().size());
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public Iterator<Email> iterator() {
+		return new Iterator<Email>() {
+
+			private final Iterator<Map.Entry<String, Set<String>>> dominios = locais.entrySet().iterator();
+
+			private String dominio;
+
+			private Iterator<String> current = Collections.emptyIterator();
+
+			private Iterator<String> last;
+
+			@Override
+			public boolean hasNext() {
+				while (!current.hasNext()) {
+					if (!dominios.hasNext()) {
+						return false;
+					}
+					Map.Entry<String, Set<String>> entry = dominios.next();
+					dominio = entry.getKey();
+					current = entry.getValue().iterator();
+				}
+				return true;
+			}
+
+			@Override
+			public Email next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				last = current;
+				return Email.ofValidated(current.next(), dominio);
+			}
+
+			@Override
+			public void remove() {
+				if (last == null) {
+					throw new IllegalStateException();
+				}
+				last.remove();
+				last = null;
+			}
+
+		};
+	}
+
+	private Set<String> locais(String dominio) {
+		Set<String> set = locais.get(dominio);
+		return set != null ? set : locais.computeIfAbsent(dominio, key -> ConcurrentHashMap.newKeySet());
+	}
+
+}
@@ -0,0 +1,337 @@
+package me.yanaga.opes;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+public final class Gerador {
+
+	public enum Tipo {
+
+		CPF(9, 11, Cpf.MASCARA) {
+			@Override
+			long size(int regiaoFiscal) {
+				return regiaoFiscal < 0 ? 1_000_000_000L : 100_000_000L;
+			}
+
+			@Override
+			long base(long index, int regiaoFiscal) {
+				return regiaoFiscal < 0 ? index : index * 10 + regiaoFiscal;
+			}
+
+			@Override
+			long index(long base, int regiaoFiscal) {
+				if (regiaoFiscal < 0) {
+					return base;
+				}
+				return base % 10 == regiaoFiscal ? base / 10 : -1;
+			}
+
+			@Override
+			long complete(long base) {
+				int dv1 = checkDigit(base, 9, 10);
+				int dv2 = checkDigit(base * 10 + dv1, 10, 11);
+				return base * 100 + dv1 * 10 + dv2;
+			}
+		},
+
+		CNPJ(12, 14, Cnpj.MASCARA) {
+			@Override
+			long size(int regiaoFiscal) {
+				return 1_000_000_000_000L;
+			}
+
+			@Override
+			long complete(long base) {
+				int dv1 = checkDigit(base, 12, 9);
+				int dv2 = checkDigit(base * 10 + dv1, 13, 9);
+				return base * 100 + dv1 * 10 + dv2;
+			}
+		},
+
+		CNS_DEFINITIVO(11, 15, Cns.MASCARA) {
+			@Override
+			long size(int regiaoFiscal) {
+				return 20_000_000_000L;
+			}
+
+			@Override
+			long base(long index, int regiaoFiscal) {
+				return 10_000_000_000L + index;
+			}
+
+			@Override
+			long index(long base, int regiaoFiscal) {
+				return base - 10_000_000_000L;
+			}
+
+			@Override
+			long complete(long pis) {
+				long digits = pis * 10_000;
+				int resto = Cns.restoPonderado(digits);
+				if (resto == 1) {
+					digits += 10;
+					resto = (resto + 2) % 11;
+				}
+				return digits + (11 - resto) % 11;
+			}
+		},
+
+		CNS_PROVISORIO(13, 15, Cns.MASCARA) {
+			@Override
+			long size(int regiaoFiscal) {
+				return 3_000_000_000_000L;
+			}
+
+			@Override
+			long base(long index, int regiaoFiscal) {
+				return 7_000_000_000_000L + index;
+			}
+
+			@Override
+			long index(long base, int regiaoFiscal) {
+				return base - 7_000_000_000_000L;
+			}
+
+			@Override
+			long complete(long base) {
+				long digits = base * 100;
+				int alvo = (11 - Cns.restoPonderado(digits)) % 11;
+				return alvo <= 9 ? digits + alvo : digits + 18;
+			}
+		};
+
+		private final int baseLength;
+
+		private final int length;
+
+		private final String mascara;
+
+		Tipo(int baseLength, int length, String mascara) {
+			this.baseLength = baseLength;
+			this.length = length;
+			this.mascara = mascara;
+		}
+
+		abstract long size(int regiaoFiscal);
+
+		long base(long index, int regiaoFiscal) {
+			return index;
+		}
+
+		long index(long base, int regiaoFiscal) {
+			return base;
+		}
+
+		abstract long complete(long base);
+
+		private static int checkDigit(long digits, int length, int pesoMaximo) {
+			int soma = 0;
+			int peso = 2;
+			for (int i = 0; i < length; i++) {
+				soma += (int) (digits % 10) * peso;
+				digits /= 10;
+				peso = peso == pesoMaximo ? 2 : peso + 1;
+			}
+			int resto = soma % 11;
+			return resto < 2 ? 0 : 11 - resto;
+		}
+
+	}
+
+	private final SplittableRandom random;
+
+	private final Uf regiaoFiscal;
+
+	private final boolean unicos;
+
+	private Gerador(SplittableRandom random, Uf regiaoFiscal, boolean unicos) {
+		this.random = random;
+		this.regiaoFiscal = regiaoFiscal;
+		this.unicos = unicos;
+	}
+
+	public static Gerador of() {
+		return new Gerador(new SplittableRandom(), null, false);
+	}
+
+	public static Gerador of(long seed) {
+		return new Gerador(new SplittableRandom(seed), null, false);
+	}
+
+	public Gerador comRegiaoFiscal(Uf uf) {
+		checkNotNull(uf);
+		checkArgument(uf != Uf.EX, "UF sem regi\u00e3o fiscal: %s.", uf);
+		return new Gerador(split(), uf, unicos);
+	}
+
+	public Gerador unicos() {
+		return new Gerador(split(), regiaoFiscal, true);
+	}
+
+	public LongStream longs(Tipo tipo, long count) {
+		checkNotNull(tipo);
+		checkArgument(count >= 0);
+		Dominio dominio = new Dominio(tipo, tipo == Tipo.CPF ? regiaoFiscal(regiaoFiscal) : -1);
+		SplittableRandom random = split();
+		if (unicos) {
+			checkArgument(count <= dominio.size, "Quantidade maior que o n\u00famero de documentos distintos: %s.",
+					dominio.size);
+			long modulo = dominio.size;
+			long limite = Math.max(1, Math.min(modulo - 1, Long.MAX_VALUE / modulo - 1));
+			long multiplicador = random.nextLong(Math.max(1, limite / 2), limite + 1);
+			while (BigInteger.valueOf(multiplicador).gcd(BigInteger.valueOf(modulo)).longValue() != 1) {
+				multiplicador--;
+			}
+			long a = multiplicador;
+			long b = random.nextLong(modulo);
+			return LongStream.range(0, count).map(i -> dominio.documento((a * i + b) % modulo));
+		}
+		return random.longs(count, 0, dominio.size).map(dominio::documento);
+	}
+
+	public Stream<String> strings(Tipo tipo, long count, boolean masked) {
+		String mascara = masked ? tipo.mascara : null;
+		int size = masked ? tipo.mascara.length() : tipo.length;
+		return longs(tipo, count).mapToObj(digits -> {
+			char[] chars = new char[size];
+			Digits.write(digits, tipo.length, mascara, chars, 0);
+			return new String(chars);
+		});
+	}
+
+	public Stream<Cpf> cpfs(long count) {
+		return longs(Tipo.CPF, count).mapToObj(Cpf::ofValidated);
+	}
+
+	public Stream<Cnpj> cnpjs(long count) {
+		return longs(Tipo.CNPJ, count).mapToObj(Cnpj::ofValidated);
+	}
+
+	public Stream<Cns> cnsDefinitivos(long count) {
+		return longs(Tipo.CNS_DEFINITIVO, count).mapToObj(Cns::ofValidated);
+	}
+
+	public Stream<Cns> cnsProvisorios(long count) {
+		return longs(Tipo.CNS_PROVISORIO, count).mapToObj(Cns::ofValidated);
+	}
+
+	private synchronized SplittableRandom split() {
+		return random.split();
+	}
+
+	static int regiaoFiscal(Uf uf) {
+		if (uf == null) {
+			return -1;
+		}
+		switch (uf) {
+			case RS:
+				return 0;
+			case DF:
+			case GO:
+			case MS:
+			case MT:
+			case TO:
+				return 1;
+			case AC:
+			case AM:
+			case AP:
+			case PA:
+			case RO:
+			case RR:
+				return 2;
+			case CE:
+			case MA:
+			case PI:
+				return 3;
+			case AL:
+			case PB:
+			case PE:
+			case RN:
+				return 4;
+			case BA:
+			case SE:
+				return 5;
+			case MG:
+				return 6;
+			case ES:
+			case RJ:
+				return 7;
+			case SP:
+				return 8;
+			case PR:
+			case SC:
+				return 9;
+			default:
+				return -1;
+		}
+	}
+
+	private static final class Dominio {
+
+		private final Tipo tipo;
+
+		private final int regiaoFiscal;
+
+		private final long[] excluidos;
+
+		private final long size;
+
+		Dominio(Tipo tipo, int regiaoFiscal) {
+			this.tipo = tipo;
+			this.regiaoFiscal = regiaoFiscal;
+			long[] excluidos = new long[10];
+			int count = 0;
+			long repunit = 0;
+			for (int i = 0; i < tipo.baseLength; i++) {
+				repunit = repunit * 10 + 1;
+			}
+			for (int digito = 0; digito <= 9; digito++) {
+				long base = repunit * digito;
+				long index = tipo.index(base, regiaoFiscal);
+				if (index >= 0 && index < tipo.size(regiaoFiscal) && Digits.isRepeated(tipo.complete(base), tipo.length)) {
+					excluidos[count++] = index;
+				}
+			}
+			this.excluidos = Arrays.copyOf(excluidos, count);
+			Arrays.sort(this.excluidos);
+			this.size = tipo.size(regiaoFiscal) - count;
+		}
+
+		long documento(long index) {
+			for (long excluido : excluidos) {
+				if (index >= excluido) {
+					index++;
+				}
+			}
+			return tipo.complete(tipo.base(index, regiaoFiscal));
+		}
+
+	}
+
+}
@@ -0,0 +1,179 @@
+package me.yanaga.opes;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.nio.ByteBuffer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+public final class OpesCodec {
+
+	static final byte CPF = 1;
+
+	static final byte CNPJ = 2;
+
+	static final byte CNS = 3;
+
+	static final byte CEP = 4;
+
+	static final byte CPF_CNPJ = 5;
+
+	private static final int[] WIDTHS = { 0, 5, 6, 7, 4, 6 };
+
+	private OpesCodec() {
+	}
+
+	public static int sizeOf(Object value) {
+		return 1 + WIDTHS[tag(value)];
+	}
+
+	public static void write(DataOutput out, Object value) throws IOException {
+		checkNotNull(out);
+		byte tag = tag(value);
+		long bits = bits(value);
+		out.writeByte(tag);
+		for (int shift = (WIDTHS[tag] - 1) * 8; shift >= 0; shift -= 8) {
+			out.writeByte((int) (bits >>> shift));
+		}
+	}
+
+	public static void write(ByteBuffer buffer, Object value) {
+		checkNotNull(buffer);
+		byte tag = tag(value);
+		long bits = bits(value);
+		buffer.put(tag);
+		for (int shift = (WIDTHS[tag] - 1) * 8; shift >= 0; shift -= 8) {
+			buffer.put((byte) (bits >>> shift));
+		}
+	}
+
+	public static Object read(DataInput in) throws IOException {
+		return read(in, false);
+	}
+
+	static Object readVerified(DataInput in) throws IOException {
+		return read(in, true);
+	}
+
+	private static Object read(DataInput in, boolean verify) throws IOException {
+		checkNotNull(in);
+		byte tag = in.readByte();
+		if (tag < CPF || tag > CPF_CNPJ) {
+			throw new InvalidObjectException(String.format("Tipo desconhecido: %s.", tag));
+		}
+		long bits = 0;
+		for (int i = 0; i < WIDTHS[tag]; i++) {
+			bits = (bits << 8) | in.readUnsignedByte();
+		}
+		Object value = decode(tag, bits, verify);
+		if (value == null) {
+			throw new InvalidObjectException(String.format("Valor inv\u00e1lido: %s.", bits));
+		}
+		return value;
+	}
+
+	public static <T> T read(DataInput in, Class<T> type) throws IOException {
+		checkNotNull(type);
+		Object value = read(in);
+		if (!type.isInstance(value)) {
+			throw new InvalidObjectException(String.format("Tipo inesperado: %s.", value.getClass().getSimpleName()));
+		}
+		return type.cast(value);
+	}
+
+	public static Object read(ByteBuffer buffer) {
+		checkNotNull(buffer);
+		byte tag = buffer.get();
+		checkArgument(tag >= CPF && tag <= CPF_CNPJ, "Tipo desconhecido: %s.", tag);
+		long bits = 0;
+		for (int i = 0; i < WIDTHS[tag]; i++) {
+			bits = (bits << 8) | (buffer.get() & 0xff);
+		}
+		Object value = decode(tag, bits, false);
+		checkArgument(value != null, "Valor inv\u00e1lido: %s.", bits);
+		return value;
+	}
+
+	public static <T> T read(ByteBuffer buffer, Class<T> type) {
+		checkNotNull(type);
+		Object value = read(buffer);
+		checkArgument(type.isInstance(value), "Tipo inesperado: %s.", value.getClass().getSimpleName());
+		return type.cast(value);
+	}
+
+	private static byte tag(Object value) {
+		checkNotNull(value);
+		if (value instanceof Cpf) {
+			return CPF;
+		}
+		if (value instanceof Cnpj) {
+			return CNPJ;
+		}
+		if (value instanceof Cns) {
+			return CNS;
+		}
+		if (value instanceof Cep) {
+			return CEP;
+		}
+		if (value instanceof CpfCnpj) {
+			return CPF_CNPJ;
+		}
+		throw new IllegalArgumentException(String.format("Tipo n\u00e3o suportado: %s.", value.getClass().getName()));
+	}
+
+	private static long bits(Object value) {
+		if (value instanceof Cpf) {
+			return ((Cpf) value).toLong();
+		}
+		if (value instanceof Cnpj) {
+			return ((Cnpj) value).toLong();
+		}
+		if (value instanceof Cns) {
+			return ((Cns) value).toLong();
+		}
+		if (value instanceof Cep) {
+			return ((Cep) value).toInt();
+		}
+		return ((CpfCnpj) value).toEncoded();
+	}
+
+	private static Object decode(byte tag, long bits, boolean verify) {
+		switch (tag) {
+			case CPF:
+				return Digits.isInRange(bits, 11) && (!verify || Cpf.isValid(bits)) ? Cpf.ofValidated(bits) : null;
+			case CNPJ:
+				return Digits.isInRange(bits, 14) && (!verify || Cnpj.isValid(bits)) ? Cnpj.ofValidated(bits) : null;
+			case CNS:
+				return Digits.isInRange(bits, 15) && (!verify || Cns.isValid(bits)) ? Cns.ofValidated(bits) : null;
+			case CEP:
+				return Digits.isInRange(bits, 8) ? Cep.ofInt((int) bits) : null;
+			default:
+				return CpfCnpj.isEncoded(bits) && (!verify || CpfCnpj.isValidEncoded(bits)) ? CpfCnpj.ofEncoded(bits)
+						: null;
+		}
+	}
+
+}
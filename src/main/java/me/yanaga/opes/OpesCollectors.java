@@ -0,0 +1,219 @@
+package me.yanaga.opes;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+public final class OpesCollectors {
+
+	private static final Uf[] UFS = Uf.values();
+
+	private OpesCollectors() {
+	}
+
+	public static Collector<Cpf, ?, CpfSet> toCpfSet() {
+		return Collector.of(CpfSet::new, CpfSet::add, OpesCollectors::merge,
+				Collector.Characteristics.CONCURRENT, Collector.Characteristics.UNORDERED,
+				Collector.Characteristics.IDENTITY_FINISH);
+	}
+
+	public static Collector<Cnpj, ?, CnpjSet> toCnpjSet() {
+		return Collector.of(CnpjSet::new, CnpjSet::add, OpesCollectors::merge,
+				Collector.Characteristics.CONCURRENT, Collector.Characteristics.UNORDERED,
+				Collector.Characteristics.IDENTITY_FINISH);
+	}
+
+	public static Collector<Email, ?, EmailSet> toEmailSet() {
+		return Collector.of(EmailSet::new, EmailSet::add, (left, right) -> {
+					left.addAll(right);
+					return left;
+				},
+				Collector.Characteristics.CONCURRENT, Collector.Characteristics.UNORDERED,
+				Collector.Characteristics.IDENTITY_FINISH);
+	}
+
+	public static Collector<Email, ?, Map<String, Long>> countingByDominio() {
+		return Collector.of(
+				() -> new HashMap<String, long[]>(),
+				(counts, email) -> counts.computeIfAbsent(email.getDominio(), dominio -> new long[1])[0]++,
+				(left, right) -> {
+					right.forEach((dominio, count) -> left.merge(dominio, count, (a, b) -> {
+						a[0] += b[0];
+						return a;
+					}));
+					return left;
+				},
+				counts -> {
+					Map<String, Long> result = new HashMap<>(counts.size() * 2);
+					counts.forEach((dominio, count) -> result.put(dominio, count[0]));
+					return result;
+				},
+				Collector.Characteristics.UNORDERED);
+	}
+
+	public static Collector<CpfCnpj, ?, CpfCnpjPartition> partitioningByType() {
+		return Collector.of(CpfCnpjPartition::new, CpfCnpjPartition::add, CpfCnpjPartition::merge,
+				Collector.Characteristics.CONCURRENT, Collector.Characteristics.UNORDERED,
+				Collector.Characteristics.IDENTITY_FINISH);
+	}
+
+	public static Collector<CpfCnpj, ?, Map<TipoPessoa, Long>> countingByType() {
+		return Collector.of(
+				() -> new long[2],
+				(counts, cpfCnpj) -> counts[cpfCnpj.getTipoPessoa().ordinal()]++,
+				(left, right) -> {
+					left[0] += right[0];
+					left[1] += right[1];
+					return left;
+				},
+				counts -> {
+					Map<TipoPessoa, Long> result = new EnumMap<>(TipoPessoa.class);
+					result.put(TipoPessoa.FISICA, counts[0]);
+					result.put(TipoPessoa.JURIDICA, counts[1]);
+					return result;
+				},
+				Collector.Characteristics.UNORDERED);
+	}
+
+	public static <T> Collector<T, ?, Map<Uf, Long>> countingByUf(Function<? super T, Uf> classifier) {
+		checkNotNull(classifier);
+		return Collector.of(
+				() -> new long[UFS.length],
+				(counts, element) -> counts[classify(classifier, element).ordinal()]++,
+				(left, right) -> {
+					for (int i = 0; i < left.length; i++) {
+						left[i] += right[i];
+					}
+					return left;
+				},
+				counts -> {
+					Map<Uf, Long> result = new EnumMap<>(Uf.class);
+					for (int i = 0; i < counts.length; i++) {
+						if (counts[i] > 0) {
+							result.put(UFS[i], counts[i]);
+						}
+					}
+					return result;
+				},
+				Collector.Characteristics.UNORDERED);
+	}
+
+	public static <T> Collector<T, ?, Map<Uf, List<T>>> groupingByUf(Function<? super T, Uf> classifier) {
+		return groupingByUf(classifier, Collectors.toList());
+	}
+
+	public static <T, A, D> Collector<T, ?, Map<Uf, D>> groupingByUf(Function<? super T, Uf> classifier,
+			Collector<? super T, A, D> downstream) {
+		checkNotNull(classifier);
+		checkNotNull(downstream);
+		Supplier<A> downstreamSupplier = downstream.supplier();
+		BiConsumer<A, ? super T> downstreamAccumulator = downstream.accumulator();
+		BinaryOperator<A> downstreamCombiner = downstream.combiner();
+		Function<A, D> downstreamFinisher = downstream.finisher();
+		return Collector.<T, List<A>, Map<Uf, D>>of(
+				() -> new ArrayList<>(Collections.nCopies(UFS.length, null)),
+				(containers, element) -> {
+					int ordinal = classify(classifier, element).ordinal();
+					A container = containers.get(ordinal);
+					if (container == null) {
+						container = downstreamSupplier.get();
+						containers.set(ordinal, container);
+					}
+					downstreamAccumulator.accept(container, element);
+				},
+				(left, right) -> {
+					for (int i = 0; i < left.size(); i++) {
+						A container = right.get(i);
+						if (container != null) {
+							left.set(i, left.get(i) == null ? container : downstreamCombiner.apply(left.get(i), container));
+						}
+					}
+					return left;
+				},
+				containers -> {
+					Map<Uf, D> result = new EnumMap<>(Uf.class);
+					for (int i = 0; i < containers.size(); i++) {
+						A container = containers.get(i);
+						if (container != null) {
+							result.put(UFS[i], downstreamFinisher.apply(container));
+						}
+					}
+					return result;
+				});
+	}
+
+	private static <T, S extends AbstractDocumentSet<T>> S merge(S left, S right) {
+		left.addAll(right);
+		return left;
+	}
+
+	private static <T> Uf classify(Function<? super T, Uf> classifier, T element) {
+		return checkNotNull(classifier.apply(element), "UF n\u00e3o encontrada: %s.", element);
+	}
+
+	public static final class CpfCnpjPartition {
+
+		private final CpfSet cpfs = new CpfSet();
+
+		private final CnpjSet cnpjs = new CnpjSet();
+
+		private CpfCnpjPartition() {
+		}
+
+		private void add(CpfCnpj cpfCnpj) {
+			if (cpfCnpj.isCpf()) {
+				cpfs.addValidated(cpfCnpj.digits());
+			}
+			else {
+				cnpjs.addValidated(cpfCnpj.digits());
+			}
+		}
+
+		private CpfCnpjPartition merge(CpfCnpjPartition other) {
+			cpfs.addAll(other.cpfs);
+			cnpjs.addAll(other.cnpjs);
+			return this;
+		}
+
+		public CpfSet getCpfs() {
+			return cpfs;
+		}
+
+		public CnpjSet getCnpjs() {
+			return cnpjs;
+		}
+
+	}
+
+}
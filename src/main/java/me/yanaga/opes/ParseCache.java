@@ -0,0 +1,183 @@
+package me.yanaga.opes;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.google.common.cache.CacheStats;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+public final class ParseCache<T> {
+
+	private static final int ADMISSION_FREQUENCY = 2;
+
+	private static final int MAX_SEGMENTS = 16;
+
+	private final Function<? super String, ? extends T> parser;
+
+	private final Segment[] segments;
+
+	private final FrequencySketch sketch;
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder evictions = new LongAdder();
+
+	private ParseCache(Function<? super String, ? extends T> parser, long maximumSize) {
+		this.parser = parser;
+		this.sketch = new FrequencySketch(maximumSize);
+		int count = Integer.highestOneBit((int) Math.min(maximumSize, MAX_SEGMENTS));
+		int capacity = (int) Math.min(maximumSize / count, Integer.MAX_VALUE);
+		this.segments = new Segment[count];
+		for (int i = 0; i < count; i++) {
+			segments[i] = new Segment(capacity, sketch, evictions);
+		}
+	}
+
+	public static <T> ParseCache<T> of(Function<? super String, ? extends T> parser, long maximumSize) {
+		checkNotNull(parser);
+		checkArgument(maximumSize > 0);
+		return new ParseCache<>(parser, maximumSize);
+	}
+
+	@SuppressWarnings("unchecked")
+	public T parse(String value) {
+		checkNotNull(value);
+		sketch.increment(value);
+		Object cached = segment(value).get(value);
+		if (cached instanceof Alias) {
+			String canonical = ((Alias) cached).canonical;
+			sketch.increment(canonical);
+			cached = segment(canonical).get(canonical);
+		}
+		if (cached != null) {
+			hits.increment();
+			return (T) cached;
+		}
+		misses.increment();
+		T parsed = checkNotNull(parser.apply(value));
+		String canonical = parsed.toString();
+		if (canonical.equals(value)) {
+			return (T) admit(value, parsed);
+		}
+		sketch.increment(canonical);
+		T interned = (T) admit(canonical, parsed);
+		admit(value, new Alias(canonical));
+		return interned;
+	}
+
+	private Object admit(String key, Object value) {
+		int frequency = sketch.frequency(key);
+		if (frequency < ADMISSION_FREQUENCY) {
+			return value;
+		}
+		return segment(key).admit(key, value, frequency);
+	}
+
+	private Segment segment(String key) {
+		int hash = key.hashCode();
+		return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+	}
+
+	public CacheStats stats() {
+		return new CacheStats(hits.sum(), misses.sum(), 0, 0, 0, evictions.sum());
+	}
+
+	public long size() {
+		long size = 0;
+		for (Segment segment : segments) {
+			size += segment.size();
+		}
+		return size;
+	}
+
+	public void invalidateAll() {
+		for (Segment segment : segments) {
+			segment.clear();
+		}
+	}
+
+	private static final class Alias {
+
+		private final String canonical;
+
+		Alias(String canonical) {
+			this.canonical = canonical;
+		}
+
+	}
+
+	private static final class Segment {
+
+		private final int capacity;
+
+		private final FrequencySketch sketch;
+
+		private final LongAdder evictions;
+
+		private final LinkedHashMap<String, Object> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+		Segment(int capacity, FrequencySketch sketch, LongAdder evictions) {
+			this.capacity = capacity;
+			this.sketch = sketch;
+			this.evictions = evictions;
+		}
+
+		synchronized Object get(String key) {
+			return entries.get(key);
+		}
+
+		synchronized Object admit(String key, Object value, int frequency) {
+			Object existing = entries.get(key);
+			if (existing != null) {
+				return existing;
+			}
+			if (entries.size() >= capacity) {
+				Iterator<Map.Entry<String, Object>> eldest = entries.entrySet().iterator();
+				if (frequency <= sketch.frequency(eldest.next().getKey())) {
+					return value;
+				}
+				eldest.remove();
+				evictions.increment();
+			}
+			entries.put(key, value);
+			return value;
+		}
+
+		synchronized int size() {
+			return entries.size();
+		}
+
+		synchronized void clear() {
+			entries.clear();
+		}
+
+	}
+
+}
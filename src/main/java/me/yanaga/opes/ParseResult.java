@@ -0,0 +1,82 @@
+package me.yanaga.opes;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+public final class ParseResult<T> {
+
+	private static final Map<ParseError, ParseResult<?>> failures = new EnumMap<>(ParseError.class);
+
+	static {
+		for (ParseError error : ParseError.values()) {
+			failures.put(error, new ParseResult<>(null, error));
+		}
+	}
+
+	private final T value;
+
+	private final ParseError error;
+
+	private ParseResult(T value, ParseError error) {
+		this.value = value;
+		this.error = error;
+	}
+
+	static <T> ParseResult<T> success(T value) {
+		return new ParseResult<>(checkNotNull(value), null);
+	}
+
+	@SuppressWarnings("unchecked")
+	static <T> ParseResult<T> failure(ParseError error) {
+		return (ParseResult<T>) failures.get(checkNotNull(error));
+	}
+
+	public boolean isValid() {
+		return error == null;
+	}
+
+	public T get() {
+		if (error != null) {
+			throw new NoSuchElementException(String.format("Valor inv\u00e1lido: %s.", error));
+		}
+		return value;
+	}
+
+	public ParseError getError() {
+		return error;
+	}
+
+	public Optional<T> toOptional() {
+		return Optional.ofNullable(value);
+	}
+
+	@Override
+	public String toString() {
+		return error == null ? String.format("ParseResult[%s]", value) : String.format("ParseResult[%s]", error);
+	}
+
+}
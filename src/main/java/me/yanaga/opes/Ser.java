@@ -0,0 +1,55 @@
+package me.yanaga.opes;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+final class Ser implements Externalizable {
+
+	private static final long serialVersionUID = 1L;
+
+	private Object object;
+
+	public Ser() {
+	}
+
+	Ser(Object object) {
+		this.object = object;
+	}
+
+	@Override
+	public void writeExternal(ObjectOutput out) throws IOException {
+		OpesCodec.write(out, object);
+	}
+
+	@Override
+	public void readExternal(ObjectInput in) throws IOException {
+		object = OpesCodec.readVerified(in);
+	}
+
+	private Object readResolve() {
+		return object;
+	}
+
+}
@@ -0,0 +1,288 @@
+package me.yanaga.opes;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+public final class SigningService implements AutoCloseable {
+
+	private static final Task<Node> STOP = new Task<>(null);
+
+	private final CertificadoDigital certificadoDigital;
+
+	private final BlockingQueue<Task<?>> queue = new LinkedBlockingQueue<>();
+
+	private final Semaphore permits;
+
+	private final int capacity;
+
+	private final int workers;
+
+	private final AtomicInteger alive;
+
+	private final ExecutorService ownedExecutor;
+
+	private final CountDownLatch terminated;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	private final LongAdder completed = new LongAdder();
+
+	private final LongAdder failed = new LongAdder();
+
+	private final LatencyHistogram latencies = new LatencyHistogram();
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private volatile boolean closed;
+
+	private boolean stopped;
+
+	private SigningService(CertificadoDigital certificadoDigital, int workers, int capacity, Executor executor,
+			ExecutorService ownedExecutor) {
+		this.certificadoDigital = certificadoDigital;
+		this.permits = new Semaphore(capacity);
+		this.capacity = capacity;
+		this.workers = workers;
+		this.alive = new AtomicInteger(workers);
+		this.ownedExecutor = ownedExecutor;
+		this.terminated = new CountDownLatch(workers);
+		for (int i = 0; i < workers; i++) {
+			executor.execute(this::work);
+		}
+	}
+
+	public static SigningService of(CertificadoDigital certificadoDigital) {
+		return of(certificadoDigital, Runtime.getRuntime().availableProcessors(), 1024);
+	}
+
+	public static SigningService of(CertificadoDigital certificadoDigital, int workers, int capacity) {
+		checkArgument(workers > 0);
+		ExecutorService executor = Executors.newFixedThreadPool(workers, runnable -> {
+			Thread thread = new Thread(runnable, "opes-signing");
+			thread.setDaemon(true);
+			return thread;
+		});
+		return of(certificadoDigital, workers, capacity, executor, executor);
+	}
+
+	public static SigningService of(CertificadoDigital certificadoDigital, int workers, int capacity, Executor executor) {
+		return of(certificadoDigital, workers, capacity, executor, null);
+	}
+
+	private static SigningService of(CertificadoDigital certificadoDigital, int workers, int capacity, Executor executor,
+			ExecutorService ownedExecutor) {
+		checkNotNull(certificadoDigital);
+		checkNotNull(executor);
+		checkArgument(workers > 0);
+		checkArgument(capacity > 0);
+		return new SigningService(certificadoDigital, workers, capacity, executor, ownedExecutor);
+	}
+
+	public <T extends Node> CompletableFuture<T> submit(T node) throws InterruptedException {
+		Task<T> task = task(node);
+		lock.readLock().lockInterruptibly();
+		try {
+			checkOpen();
+			permits.acquire();
+			enqueue(task);
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+		return task.future;
+	}
+
+	public <T extends Node> CompletableFuture<T> submit(T node, long timeout, TimeUnit unit) throws InterruptedException {
+		checkNotNull(unit);
+		Task<T> task = task(node);
+		lock.readLock().lockInterruptibly();
+		try {
+			checkOpen();
+			if (!permits.tryAcquire(timeout, unit)) {
+				throw new RejectedExecutionException("Fila de assinatura cheia.");
+			}
+			enqueue(task);
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+		return task.future;
+	}
+
+	private static <T extends Node> Task<T> task(T node) {
+		checkNotNull(node);
+		checkArgument(node instanceof Document || node instanceof Element);
+		return new Task<>(node);
+	}
+
+	private void enqueue(Task<?> task) {
+		queue.add(task);
+		if (alive.get() == 0) {
+			failQueued();
+		}
+	}
+
+	private void checkOpen() {
+		if (closed) {
+			throw new RejectedExecutionException("Servi\u00e7o de assinatura encerrado.");
+		}
+	}
+
+	private void work() {
+		try {
+			while (true) {
+				Task<?> task = queue.take();
+				if (task == STOP) {
+					return;
+				}
+				permits.release();
+				run(task);
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		finally {
+			if (alive.decrementAndGet() == 0) {
+				failQueued();
+			}
+			terminated.countDown();
+		}
+	}
+
+	private void failQueued() {
+		closed = true;
+		for (Task<?> task = queue.poll(); task != null; task = queue.poll()) {
+			if (task != STOP) {
+				permits.release();
+				failed.increment();
+				task.future.completeExceptionally(new RejectedExecutionException("Servi\u00e7o de assinatura encerrado."));
+			}
+		}
+	}
+
+	private <T extends Node> void run(Task<T> task) {
+		inFlight.incrementAndGet();
+		try {
+			T signed = certificadoDigital.sign(task.node);
+			latencies.record(System.nanoTime() - task.submitted);
+			completed.increment();
+			task.future.complete(signed);
+		}
+		catch (Throwable ex) {
+			failed.increment();
+			task.future.completeExceptionally(ex);
+			if (ex instanceof ThreadDeath) {
+				throw ex;
+			}
+		}
+		finally {
+			inFlight.decrementAndGet();
+		}
+	}
+
+	public int getQueueDepth() {
+		return capacity - permits.availablePermits();
+	}
+
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+	public long getCompleted() {
+		return completed.sum();
+	}
+
+	public long getFailed() {
+		return failed.sum();
+	}
+
+	public Duration getLatency(double percentile) {
+		checkArgument(percentile >= 0 && percentile <= 100);
+		return Duration.ofNanos(latencies.percentile(percentile));
+	}
+
+	public void resetLatencies() {
+		latencies.reset();
+	}
+
+	@Override
+	public void close() {
+		lock.writeLock().lock();
+		try {
+			closed = true;
+			if (!stopped) {
+				stopped = true;
+				for (int i = 0; i < workers; i++) {
+					queue.add(STOP);
+				}
+			}
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+		if (ownedExecutor != null) {
+			ownedExecutor.shutdown();
+		}
+	}
+
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		checkNotNull(unit);
+		return terminated.await(timeout, unit);
+	}
+
+	private static final class Task<T extends Node> {
+
+		private final T node;
+
+		private final CompletableFuture<T> future = new CompletableFuture<>();
+
+		private final long submitted = System.nanoTime();
+
+		Task(T node) {
+			this.node = node;
+		}
+
+	}
+
+}
@@ -0,0 +1,417 @@
+package me.yanaga.opes;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.google.common.io.ByteStreams;
+
+import javax.xml.XMLConstants;
+import javax.xml.crypto.dsig.CanonicalizationMethod;
+import javax.xml.crypto.dsig.DigestMethod;
+import javax.xml.crypto.dsig.SignatureMethod;
+import javax.xml.crypto.dsig.Transform;
+import javax.xml.crypto.dsig.XMLSignature;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+final class StreamingSigner {
+
+	private static final String C14N_TRANSFORM_METHOD = "http://www.w3.org/TR/2001/REC-xml-c14n-20010315";
+
+	private static final Comparator<String[]> ATTRIBUTE_ORDER = Comparator.<String[], String>comparing(a -> a[0])
+			.thenComparing(a -> a[1]);
+
+	private final PrivateKey privateKey;
+
+	private final X509Certificate certificate;
+
+	private final List<String> prefixes = new ArrayList<>();
+
+	private final List<String> uris = new ArrayList<>();
+
+	private final List<String[]> xmlAttributes = new ArrayList<>();
+
+	private int[] frames = new int[16];
+
+	private int[] xmlFrames = new int[16];
+
+	private int depth;
+
+	StreamingSigner(PrivateKey privateKey, X509Certificate certificate) {
+		this.privateKey = privateKey;
+		this.certificate = certificate;
+	}
+
+	void sign(XMLStreamReader reader, OutputStream output) throws XMLStreamException, IOException,
+			GeneralSecurityException {
+		Writer out = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+		MessageDigest digest = MessageDigest.getInstance("SHA-1");
+		Writer canonical = null;
+		int referenceDepth = -1;
+		String uri = null;
+		String digestValue = null;
+		out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+		while (reader.hasNext()) {
+			switch (reader.next()) {
+				case XMLStreamConstants.START_ELEMENT:
+					depth++;
+					if (depth == 2 && uri == null) {
+						String id = reader.getAttributeValue(null, "Id");
+						checkArgument(id != null, "Atributo Id n\u00e3o encontrado em %s.", reader.getLocalName());
+						uri = "#" + id;
+						referenceDepth = depth;
+						canonical = new BufferedWriter(new OutputStreamWriter(
+								new DigestOutputStream(ByteStreams.nullOutputStream(), digest), StandardCharsets.UTF_8));
+						writeApex(canonical, reader);
+					}
+					else if (canonical != null) {
+						writeDescendant(canonical, reader);
+					}
+					writeStart(out, reader);
+					push(reader);
+					break;
+				case XMLStreamConstants.END_ELEMENT:
+					if (canonical != null) {
+						canonical.write("</");
+						canonical.write(qualifiedName(reader.getPrefix(), reader.getLocalName()));
+						canonical.write('>');
+						if (depth == referenceDepth) {
+							canonical.flush();
+							digestValue = Base64.getEncoder().encodeToString(digest.digest());
+							canonical = null;
+						}
+					}
+					if (depth == 1) {
+						checkArgument(digestValue != null, "Elemento a ser assinado n\u00e3o encontrado.");
+						writeSignature(out, uri, digestValue);
+					}
+					out.write("</");
+					out.write(qualifiedName(reader.getPrefix(), reader.getLocalName()));
+					out.write('>');
+					pop();
+					depth--;
+					break;
+				case XMLStreamConstants.CHARACTERS:
+				case XMLStreamConstants.CDATA:
+				case XMLStreamConstants.SPACE:
+					if (depth > 0) {
+						writeText(out, reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+						if (canonical != null) {
+							writeText(canonical, reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+						}
+					}
+					break;
+				case XMLStreamConstants.COMMENT:
+					out.write("<!--");
+					out.write(reader.getText());
+					out.write("-->");
+					break;
+				case XMLStreamConstants.PROCESSING_INSTRUCTION:
+					writeProcessingInstruction(out, reader);
+					if (canonical != null) {
+						writeProcessingInstruction(canonical, reader);
+					}
+					break;
+				case XMLStreamConstants.DTD:
+				case XMLStreamConstants.ENTITY_REFERENCE:
+					throw new IllegalArgumentException("DTD n\u00e3o suportado.");
+				default:
+					break;
+			}
+		}
+		checkArgument(digestValue != null, "Elemento a ser assinado n\u00e3o encontrado.");
+		out.flush();
+	}
+
+	private void writeSignature(Writer out, String uri, String digestValue) throws IOException,
+			GeneralSecurityException {
+		StringBuilder signedInfo = new StringBuilder(1024);
+		signedInfo.append("<CanonicalizationMethod Algorithm=\"").append(CanonicalizationMethod.INCLUSIVE)
+				.append("\"></CanonicalizationMethod>");
+		signedInfo.append("<SignatureMethod Algorithm=\"").append(SignatureMethod.RSA_SHA1).append("\"></SignatureMethod>");
+		signedInfo.append("<Reference URI=\"");
+		escapeAttribute(signedInfo, uri);
+		signedInfo.append("\"><Transforms>");
+		signedInfo.append("<Transform Algorithm=\"").append(Transform.ENVELOPED).append("\"></Transform>");
+		signedInfo.append("<Transform Algorithm=\"").append(C14N_TRANSFORM_METHOD).append("\"></Transform>");
+		signedInfo.append("</Transforms><DigestMethod Algorithm=\"").append(DigestMethod.SHA1).append("\"></DigestMethod>");
+		signedInfo.append("<DigestValue>").append(digestValue).append("</DigestValue></Reference></SignedInfo>");
+
+		Map<String, String> namespaces = inScope();
+		namespaces.put("", XMLSignature.XMLNS);
+		StringBuilder canonical = new StringBuilder(signedInfo.length() + 256).append("<SignedInfo");
+		appendNamespaces(canonical, namespaces);
+		appendAttributes(canonical, inheritedXmlAttributes(new ArrayList<>()));
+		canonical.append('>').append(signedInfo);
+
+		Signature signature = Signature.getInstance("SHA1withRSA");
+		signature.initSign(privateKey);
+		signature.update(canonical.toString().getBytes(StandardCharsets.UTF_8));
+
+		out.write("<Signature xmlns=\"");
+		out.write(XMLSignature.XMLNS);
+		out.write("\"><SignedInfo>");
+		out.write(signedInfo.toString());
+		out.write("<SignatureValue>");
+		out.write(Base64.getEncoder().encodeToString(signature.sign()));
+		out.write("</SignatureValue><KeyInfo><X509Data><X509Certificate>");
+		out.write(Base64.getEncoder().encodeToString(certificate.getEncoded()));
+		out.write("</X509Certificate></X509Data></KeyInfo></Signature>");
+	}
+
+	private void writeApex(Writer canonical, XMLStreamReader reader) throws IOException {
+		Map<String, String> namespaces = inScope();
+		for (int i = 0; i < reader.getNamespaceCount(); i++) {
+			namespaces.put(nonNull(reader.getNamespacePrefix(i)), nonNull(reader.getNamespaceURI(i)));
+		}
+		List<String[]> attributes = attributes(reader);
+		StringBuilder sb = new StringBuilder(128).append('<').append(qualifiedName(reader.getPrefix(), reader.getLocalName()));
+		appendNamespaces(sb, namespaces);
+		appendAttributes(sb, inheritedXmlAttributes(attributes));
+		canonical.append(sb).append('>');
+	}
+
+	private void writeDescendant(Writer canonical, XMLStreamReader reader) throws IOException {
+		Map<String, String> namespaces = new TreeMap<>();
+		for (int i = 0; i < reader.getNamespaceCount(); i++) {
+			String prefix = nonNull(reader.getNamespacePrefix(i));
+			String uri = nonNull(reader.getNamespaceURI(i));
+			if (!prefix.equals(XMLConstants.XML_NS_PREFIX) && !uri.equals(nonNull(lookup(prefix)))) {
+				namespaces.put(prefix, uri);
+			}
+		}
+		List<String[]> attributes = attributes(reader);
+		attributes.sort(ATTRIBUTE_ORDER);
+		StringBuilder sb = new StringBuilder(128).append('<').append(qualifiedName(reader.getPrefix(), reader.getLocalName()));
+		for (Map.Entry<String, String> namespace : namespaces.entrySet()) {
+			appendNamespace(sb, namespace.getKey(), namespace.getValue());
+		}
+		appendAttributes(sb, attributes);
+		canonical.append(sb).append('>');
+	}
+
+	private void writeStart(Writer out, XMLStreamReader reader) throws IOException {
+		StringBuilder sb = new StringBuilder(128).append('<').append(qualifiedName(reader.getPrefix(), reader.getLocalName()));
+		for (int i = 0; i < reader.getNamespaceCount(); i++) {
+			appendNamespace(sb, nonNull(reader.getNamespacePrefix(i)), nonNull(reader.getNamespaceURI(i)));
+		}
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			sb.append(' ').append(qualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i))).append("=\"");
+			escapeAttribute(sb, reader.getAttributeValue(i));
+			sb.append('"');
+		}
+		out.append(sb).append('>');
+	}
+
+	private static void writeProcessingInstruction(Writer out, XMLStreamReader reader) throws IOException {
+		out.write("<?");
+		out.write(reader.getPITarget());
+		String data = reader.getPIData();
+		if (data != null && !data.isEmpty()) {
+			out.write(' ');
+			out.write(data);
+		}
+		out.write("?>");
+	}
+
+	private static void writeText(Writer out, char[] chars, int start, int length) throws IOException {
+		int from = start;
+		int end = start + length;
+		for (int i = start; i < end; i++) {
+			String escaped;
+			switch (chars[i]) {
+				case '&':
+					escaped = "&amp;";
+					break;
+				case '<':
+					escaped = "&lt;";
+					break;
+				case '>':
+					escaped = "&gt;";
+					break;
+				case '\r':
+					escaped = "&#xD;";
+					break;
+				default:
+					continue;
+			}
+			out.write(chars, from, i - from);
+			out.write(escaped);
+			from = i + 1;
+		}
+		out.write(chars, from, end - from);
+	}
+
+	private static void escapeAttribute(StringBuilder sb, String value) {
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+				case '&':
+					sb.append("&amp;");
+					break;
+				case '<':
+					sb.append("&lt;");
+					break;
+				case '"':
+					sb.append("&quot;");
+					break;
+				case '\t':
+					sb.append("&#x9;");
+					break;
+				case '\n':
+					sb.append("&#xA;");
+					break;
+				case '\r':
+					sb.append("&#xD;");
+					break;
+				default:
+					sb.append(c);
+			}
+		}
+	}
+
+	private static void appendNamespaces(StringBuilder sb, Map<String, String> namespaces) {
+		for (Map.Entry<String, String> namespace : namespaces.entrySet()) {
+			if (!namespace.getKey().equals(XMLConstants.XML_NS_PREFIX)
+					&& (!namespace.getKey().isEmpty() || !namespace.getValue().isEmpty())) {
+				appendNamespace(sb, namespace.getKey(), namespace.getValue());
+			}
+		}
+	}
+
+	private static void appendNamespace(StringBuilder sb, String prefix, String uri) {
+		sb.append(prefix.isEmpty() ? " xmlns=\"" : " xmlns:").append(prefix.isEmpty() ? "" : prefix + "=\"");
+		escapeAttribute(sb, uri);
+		sb.append('"');
+	}
+
+	private static void appendAttributes(StringBuilder sb, List<String[]> attributes) {
+		for (String[] attribute : attributes) {
+			sb.append(' ').append(attribute[2]).append("=\"");
+			escapeAttribute(sb, attribute[3]);
+			sb.append('"');
+		}
+	}
+
+	private static List<String[]> attributes(XMLStreamReader reader) {
+		List<String[]> attributes = new ArrayList<>(reader.getAttributeCount());
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			attributes.add(new String[] { nonNull(reader.getAttributeNamespace(i)), reader.getAttributeLocalName(i),
+					qualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)),
+					reader.getAttributeValue(i) });
+		}
+		return attributes;
+	}
+
+	private List<String[]> inheritedXmlAttributes(List<String[]> attributes) {
+		for (int i = xmlAttributes.size() - 1; i >= 0; i--) {
+			String[] inherited = xmlAttributes.get(i);
+			boolean present = false;
+			for (String[] attribute : attributes) {
+				present |= attribute[0].equals(inherited[0]) && attribute[1].equals(inherited[1]);
+			}
+			if (!present) {
+				attributes.add(inherited);
+			}
+		}
+		attributes.sort(ATTRIBUTE_ORDER);
+		return attributes;
+	}
+
+	private Map<String, String> inScope() {
+		Map<String, String> namespaces = new TreeMap<>();
+		for (int i = 0; i < prefixes.size(); i++) {
+			namespaces.put(prefixes.get(i), uris.get(i));
+		}
+		return namespaces;
+	}
+
+	private String lookup(String prefix) {
+		for (int i = prefixes.size() - 1; i >= 0; i--) {
+			if (prefixes.get(i).equals(prefix)) {
+				return uris.get(i);
+			}
+		}
+		return null;
+	}
+
+	private void push(XMLStreamReader reader) {
+		if (depth >= frames.length) {
+			frames = Arrays.copyOf(frames, frames.length * 2);
+			xmlFrames = Arrays.copyOf(xmlFrames, xmlFrames.length * 2);
+		}
+		frames[depth] = prefixes.size();
+		xmlFrames[depth] = xmlAttributes.size();
+		for (int i = 0; i < reader.getNamespaceCount(); i++) {
+			prefixes.add(nonNull(reader.getNamespacePrefix(i)));
+			uris.add(nonNull(reader.getNamespaceURI(i)));
+		}
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			if (XMLConstants.XML_NS_URI.equals(reader.getAttributeNamespace(i))) {
+				xmlAttributes.add(new String[] { XMLConstants.XML_NS_URI, reader.getAttributeLocalName(i),
+						qualifiedName(XMLConstants.XML_NS_PREFIX, reader.getAttributeLocalName(i)),
+						reader.getAttributeValue(i) });
+			}
+		}
+	}
+
+	private void pop() {
+		int frame = frames[depth];
+		while (prefixes.size() > frame) {
+			prefixes.remove(prefixes.size() - 1);
+			uris.remove(uris.size() - 1);
+		}
+		int xmlFrame = xmlFrames[depth];
+		while (xmlAttributes.size() > xmlFrame) {
+			xmlAttributes.remove(xmlAttributes.size() - 1);
+		}
+	}
+
+	private static String qualifiedName(String prefix, String localName) {
+		return prefix == null || prefix.isEmpty() ? localName : prefix + ":" + localName;
+	}
+
+	private static String nonNull(String value) {
+		return value != null ? value : "";
+	}
+
+}
@@ -20,11 +20,6 @@ package me.yanaga.opes;
  * #L%
  */
 
-import java.util.Map;
-import java.util.stream.Stream;
-
-import static me.yanaga.guava.stream.MoreCollectors.toImmutableMap;
-
 public enum Uf {
 
 	AC(12, "Acre"),
@@ -83,10 +78,42 @@ public enum Uf {
 
 	EX(0, "Exterior");
 
-	private static final Map<Integer, Uf> valueMap = Stream.of(values()).collect(toImmutableMap(i -> i.codigoIbge, i -> i));
+	private static final Uf[] CODIGOS = new Uf[54];
+
+	private static final Uf[] SIGLAS = new Uf[26 * 26];
+
+	static {
+		for (Uf uf : values()) {
+			CODIGOS[uf.codigoIbge] = uf;
+			SIGLAS[(uf.name().charAt(0) - 'A') * 26 + uf.name().charAt(1) - 'A'] = uf;
+		}
+	}
 
 	public static Uf of(Integer codigo) {
-		return valueMap.get(codigo);
+		return codigo != null ? of(codigo.intValue()) : null;
+	}
+
+	public static Uf of(int codigo) {
+		return codigo >= 0 && codigo < CODIGOS.length ? CODIGOS[codigo] : null;
+	}
+
+	public static Uf ofSigla(CharSequence sigla) {
+		if (sigla == null || sigla.length() != 2) {
+			return null;
+		}
+		int first = letra(sigla.charAt(0));
+		int second = letra(sigla.charAt(1));
+		return first >= 0 && second >= 0 ? SIGLAS[first * 26 + second] : null;
+	}
+
+	private static int letra(char c) {
+		if (c >= 'A' && c <= 'Z') {
+			return c - 'A';
+		}
+		if (c >= 'a' && c <= 'z') {
+			return c - 'a';
+		}
+		return -1;
 	}
 
 	private final String nome;
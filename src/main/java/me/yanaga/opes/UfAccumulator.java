@@ -0,0 +1,91 @@
+package me.yanaga.opes;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.EnumMap;
+import java.util.concurrent.atomic.DoubleAdder;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+public final class UfAccumulator {
+
+	private static final Uf[] UFS = Uf.values();
+
+	private final DoubleAdder[] accumulators = new DoubleAdder[UFS.length];
+
+	public UfAccumulator() {
+		for (int i = 0; i < accumulators.length; i++) {
+			accumulators[i] = new DoubleAdder();
+		}
+	}
+
+	public void add(Uf uf, double value) {
+		checkNotNull(uf);
+		accumulators[uf.ordinal()].add(value);
+	}
+
+	public double sum(Uf uf) {
+		checkNotNull(uf);
+		return accumulators[uf.ordinal()].sum();
+	}
+
+	public double sum() {
+		double sum = 0;
+		for (DoubleAdder accumulator : accumulators) {
+			sum += accumulator.sum();
+		}
+		return sum;
+	}
+
+	public void reset() {
+		for (DoubleAdder accumulator : accumulators) {
+			accumulator.reset();
+		}
+	}
+
+	public EnumMap<Uf, Double> toMap() {
+		EnumMap<Uf, Double> result = new EnumMap<>(Uf.class);
+		for (int i = 0; i < accumulators.length; i++) {
+			double sum = accumulators[i].sum();
+			if (sum != 0) {
+				result.put(UFS[i], sum);
+			}
+		}
+		return result;
+	}
+
+	public EnumMap<Uf, Double> toMapThenReset() {
+		EnumMap<Uf, Double> result = new EnumMap<>(Uf.class);
+		for (int i = 0; i < accumulators.length; i++) {
+			double sum = accumulators[i].sumThenReset();
+			if (sum != 0) {
+				result.put(UFS[i], sum);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return toMap().toString();
+	}
+
+}
@@ -0,0 +1,96 @@
+package me.yanaga.opes;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.EnumMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+public final class UfCounters {
+
+	private static final Uf[] UFS = Uf.values();
+
+	private final LongAdder[] counters = new LongAdder[UFS.length];
+
+	public UfCounters() {
+		for (int i = 0; i < counters.length; i++) {
+			counters[i] = new LongAdder();
+		}
+	}
+
+	public void increment(Uf uf) {
+		checkNotNull(uf);
+		counters[uf.ordinal()].increment();
+	}
+
+	public void add(Uf uf, long value) {
+		checkNotNull(uf);
+		counters[uf.ordinal()].add(value);
+	}
+
+	public long sum(Uf uf) {
+		checkNotNull(uf);
+		return counters[uf.ordinal()].sum();
+	}
+
+	public long sum() {
+		long sum = 0;
+		for (LongAdder counter : counters) {
+			sum += counter.sum();
+		}
+		return sum;
+	}
+
+	public void reset() {
+		for (LongAdder counter : counters) {
+			counter.reset();
+		}
+	}
+
+	public EnumMap<Uf, Long> toMap() {
+		EnumMap<Uf, Long> result = new EnumMap<>(Uf.class);
+		for (int i = 0; i < counters.length; i++) {
+			long sum = counters[i].sum();
+			if (sum != 0) {
+				result.put(UFS[i], sum);
+			}
+		}
+		return result;
+	}
+
+	public EnumMap<Uf, Long> toMapThenReset() {
+		EnumMap<Uf, Long> result = new EnumMap<>(Uf.class);
+		for (int i = 0; i < counters.length; i++) {
+			long sum = counters[i].sumThenReset();
+			if (sum != 0) {
+				result.put(UFS[i], sum);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return toMap().toString();
+	}
+
+}
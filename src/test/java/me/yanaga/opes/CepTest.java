@@ -21,8 +21,18 @@ package me.yanaga.opes;
  */
 
 import com.google.common.collect.Range;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class CepTest {
@@ -64,4 +74,130 @@ public class CepTest {
 		assertThat(Range.closed(inicio, termino).contains(Cep.of("79999999"))).isFalse();
 	}
 
+	@Test
+	public void testOfInt() {
+		assertThat(Cep.ofInt(1310100)).isEqualTo(Cep.of("01310-100"));
+		assertThat(Cep.ofInt(1310100).toString()).isEqualTo("01310100");
+		assertThat(Cep.of("87030-020").toInt()).isEqualTo(87030020);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testOfIntOutOfRange() {
+		Cep.ofInt(100000000);
+	}
+
+	@Test
+	public void testTryParse() {
+		assertThat(Cep.tryParse("87030-020").get()).isEqualTo(Cep.of("87030020"));
+		assertThat(Cep.tryParse("8703002").getError()).isEqualTo(ParseError.WRONG_LENGTH);
+	}
+
+	@Test
+	public void testOfBytes() {
+		byte[] bytes = "87030-020".getBytes(StandardCharsets.US_ASCII);
+		assertThat(Cep.of(bytes, 0, bytes.length)).isEqualTo(Cep.of("87030020"));
+		assertThat(Cep.of(ByteBuffer.wrap(bytes))).isEqualTo(Cep.of("87030020"));
+		assertThat(Cep.of("CEP 87030-020", 4, 13)).isEqualTo(Cep.of("87030020"));
+	}
+
+	@Test
+	public void testFormatToWidth() {
+		assertThat(String.format("[%11s]", Cep.of("01310100"))).isEqualTo("[  01310-100]");
+		assertThat(String.format("[%-11s]", Cep.of("01310100"))).isEqualTo("[01310-100  ]");
+		assertThat(String.format("[%7s]", Cep.of("01310100"))).isEqualTo("[01310-100]");
+	}
+
+	@Test
+	public void testAppendTo() throws IOException {
+		assertThat(Cep.of("01310100").appendTo(new StringBuilder("x"), true).toString()).isEqualTo("x01310-100");
+		assertThat(Cep.of("01310100").appendTo(new StringBuilder(), false).toString()).isEqualTo("01310100");
+		StringWriter writer = new StringWriter();
+		assertThat(Cep.of("01310100").appendTo(writer, true)).isSameAs(writer);
+		assertThat(writer.toString()).isEqualTo("01310-100");
+	}
+
+	@Test
+	public void testWriteTo() {
+		char[] chars = new char[9 + 8 + 1];
+		int offset = Cep.of("01310100").writeTo(chars, 0, true);
+		assertThat(offset).isEqualTo(9);
+		chars[offset++] = ';';
+		assertThat(Cep.of("01310100").writeTo(chars, offset, false)).isEqualTo(chars.length);
+		assertThat(new String(chars)).isEqualTo("01310-100;01310100");
+	}
+
+	@Test(expectedExceptions = IndexOutOfBoundsException.class)
+	public void testWriteToOutOfBounds() {
+		Cep.of("01310100").writeTo(new char[9], 1, true);
+	}
+
+	@DataProvider
+	public static Object[][] faixas() {
+		return new Object[][] {
+				{ "01000-000", "19999-999", Uf.SP },
+				{ "20000-000", "28999-999", Uf.RJ },
+				{ "29000-000", "29999-999", Uf.ES },
+				{ "30000-000", "39999-999", Uf.MG },
+				{ "40000-000", "48999-999", Uf.BA },
+				{ "49000-000", "49999-999", Uf.SE },
+				{ "50000-000", "56999-999", Uf.PE },
+				{ "57000-000", "57999-999", Uf.AL },
+				{ "58000-000", "58999-999", Uf.PB },
+				{ "59000-000", "59999-999", Uf.RN },
+				{ "60000-000", "63999-999", Uf.CE },
+				{ "64000-000", "64999-999", Uf.PI },
+				{ "65000-000", "65999-999", Uf.MA },
+				{ "66000-000", "68899-999", Uf.PA },
+				{ "68900-000", "68999-999", Uf.AP },
+				{ "69000-000", "69299-999", Uf.AM },
+				{ "69300-000", "69399-999", Uf.RR },
+				{ "69400-000", "69899-999", Uf.AM },
+				{ "69900-000", "69999-999", Uf.AC },
+				{ "70000-000", "72799-999", Uf.DF },
+				{ "72800-000", "72999-999", Uf.GO },
+				{ "73000-000", "73699-999", Uf.DF },
+				{ "73700-000", "76799-999", Uf.GO },
+				{ "76800-000", "76999-999", Uf.RO },
+				{ "77000-000", "77999-999", Uf.TO },
+				{ "78000-000", "78899-999", Uf.MT },
+				{ "78900-000", "78999-999", Uf.RO },
+				{ "79000-000", "79999-999", Uf.MS },
+				{ "80000-000", "87999-999", Uf.PR },
+				{ "88000-000", "89999-999", Uf.SC },
+				{ "90000-000", "99999-999", Uf.RS } };
+	}
+
+	@Test(dataProvider = "faixas")
+	public void testGetUf(String inicio, String termino, Uf uf) {
+		assertThat(Cep.of(inicio).getUf().get()).isEqualTo(uf);
+		assertThat(Cep.of(termino).getUf().get()).isEqualTo(uf);
+		assertThat(Cep.ofInt((Cep.of(inicio).toInt() + Cep.of(termino).toInt()) / 2).getUf().get()).isEqualTo(uf);
+	}
+
+	@Test
+	public void testGetUfSemFaixa() {
+		assertThat(Cep.of("00000-000").getUf().isPresent()).isFalse();
+		assertThat(Cep.of("00999-999").getUf().isPresent()).isFalse();
+		assertThat(Cep.of("87030-020").getUf()).isSameAs(Cep.of("80000-000").getUf());
+	}
+
+	@Test
+	public void testGroupingByUf() {
+		EnumMap<Uf, List<Cep>> grouped = Cep.groupingByUf(Arrays.asList(Cep.of("87030-020"), Cep.of("01310-100"),
+				Cep.of("80010-000"), Cep.of("69900-000")));
+		assertThat(grouped.keySet()).containsExactly(Uf.AC, Uf.PR, Uf.SP);
+		assertThat(grouped.get(Uf.PR)).containsExactly(Cep.of("87030-020"), Cep.of("80010-000"));
+		assertThat(grouped.get(Uf.SP)).containsExactly(Cep.of("01310-100"));
+	}
+
+	@Test
+	public void testGroupingByUfSemFaixa() {
+		List<Cep> ceps = Arrays.asList(Cep.of("87030-020"), Cep.of("00100-000"), Cep.of("00999-999"));
+		assertThat(Cep.groupingByUf(ceps).get(Uf.PR)).containsExactly(Cep.of("87030-020"));
+		assertThat(Cep.groupingByUf(ceps)).hasSize(1);
+		List<Cep> semUf = new ArrayList<>();
+		assertThat(Cep.groupingByUf(ceps, semUf).get(Uf.PR)).containsExactly(Cep.of("87030-020"));
+		assertThat(semUf).containsExactly(Cep.of("00100-000"), Cep.of("00999-999"));
+	}
+
 }
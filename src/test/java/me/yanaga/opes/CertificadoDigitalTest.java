@@ -0,0 +1,154 @@
+package me.yanaga.opes;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+
+import javax.xml.crypto.dsig.XMLSignature;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CertificadoDigitalTest {
+
+	private CertificadoDigital certificadoDigital;
+
+	@BeforeClass
+	public void setup() {
+		certificadoDigital = SigningServiceTest.autoAssinado();
+	}
+
+	@DataProvider
+	public static Object[][] documentos() {
+		return new Object[][] {
+				{ "<NFe xmlns=\"http://www.portalfiscal.inf.br/nfe\"><infNFe Id=\"NFe1\" versao=\"3.10\"><ide><nNF>1</nNF>"
+						+ "</ide></infNFe></NFe>" },
+				{ "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<!-- antes -->\n"
+						+ "<lote xmlns=\"urn:lote\" xmlns:x=\"urn:x\" xml:lang=\"pt\">\n"
+						+ "  <evento Id=\"ID1\" xmlns:y=\"urn:y\" z=\"1\" x:b=\"2\" a=\"3&#9;&#10;&quot;&lt;&gt;\" xml:space=\"preserve\">\n"
+						+ "    <a xmlns=\"\">texto &amp; &lt; &gt; <![CDATA[cdata <&>]]> \u00e7\u00e3o &#xD; \ud83d\ude00</a>\n"
+						+ "    <x:b xmlns:x=\"urn:x\"><!-- comentario --><?pi dados?><y:c/></x:b>\n"
+						+ "    <d xmlns=\"urn:outro\"><e xmlns=\"urn:outro\" xmlns:x=\"urn:x2\" b=\"1\" x:a=\"2\" y:a=\"3\"/></d>\n"
+						+ "  </evento>\n"
+						+ "  <outro>resto</outro>\n"
+						+ "</lote>\n<?fim?>" },
+				{ "<a:raiz xmlns:a=\"urn:a\" xmlns:b=\"urn:b\"><a:filho Id=\"_1\" xml:lang=\"en\"><b:neto/></a:filho></a:raiz>" } };
+	}
+
+	@Test(dataProvider = "documentos")
+	public void testSignStreamMatchesDom(String xml) throws Exception {
+		Document dom = certificadoDigital.sign(parse(xml.getBytes(StandardCharsets.UTF_8)));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		certificadoDigital.sign(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), out);
+		Document streamed = parse(out.toByteArray());
+
+		assertThat(value(streamed, "DigestValue")).isEqualTo(value(dom, "DigestValue"));
+		assertThat(value(streamed, "SignatureValue")).isEqualTo(value(dom, "SignatureValue"));
+
+		Element reference = firstElementChild(streamed.getDocumentElement());
+		reference.setIdAttribute("Id", true);
+		assertThat(certificadoDigital.validate(streamed)).isTrue();
+	}
+
+	@Test
+	public void testSignStreamDetectsTampering() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		certificadoDigital.sign(new ByteArrayInputStream(SigningServiceTest.notaFiscalXml(7).getBytes(StandardCharsets.UTF_8)), out);
+		String signed = new String(out.toByteArray(), StandardCharsets.UTF_8);
+		Document tampered = parse(signed.replace("<nNF>7</nNF>", "<nNF>8</nNF>").getBytes(StandardCharsets.UTF_8));
+		firstElementChild(tampered.getDocumentElement()).setIdAttribute("Id", true);
+		assertThat(certificadoDigital.validate(tampered)).isFalse();
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testSignStreamWithoutId() {
+		certificadoDigital.sign(new ByteArrayInputStream("<a><b/></a>".getBytes(StandardCharsets.UTF_8)),
+				new ByteArrayOutputStream());
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testSignStreamWithDtd() {
+		certificadoDigital.sign(new ByteArrayInputStream("<!DOCTYPE a [<!ENTITY e \"x\">]><a><b Id=\"1\">&e;</b></a>"
+				.getBytes(StandardCharsets.UTF_8)), new ByteArrayOutputStream());
+	}
+
+	@Test
+	public void testReleaseThreadContext() {
+		Document primeiro = certificadoDigital.sign(SigningServiceTest.notaFiscal(1));
+		CertificadoDigital.releaseThreadContext();
+		Document segundo = certificadoDigital.sign(SigningServiceTest.notaFiscal(2));
+		CertificadoDigital.releaseThreadContext();
+		assertThat(certificadoDigital.validate(primeiro)).isTrue();
+		assertThat(certificadoDigital.validate(segundo)).isTrue();
+	}
+
+	@Test
+	public void testValidateReusesResolvedKey() throws Exception {
+		CertificadoDigital outro = SigningServiceTest.autoAssinado();
+		Document primeiro = certificadoDigital.sign(SigningServiceTest.notaFiscal(1));
+		Document segundo = outro.sign(SigningServiceTest.notaFiscal(2));
+		assertThat(certificadoDigital.validate(primeiro)).isTrue();
+		assertThat(certificadoDigital.validate(segundo)).isTrue();
+		long hits = CertificadoDigital.keyCacheStats().hitCount();
+		long misses = CertificadoDigital.keyCacheStats().missCount();
+		for (int i = 0; i < 10; i++) {
+			assertThat(outro.validate(primeiro)).isTrue();
+			assertThat(outro.validate(segundo)).isTrue();
+		}
+		assertThat(CertificadoDigital.keyCacheStats().hitCount() - hits).isEqualTo(20);
+		assertThat(CertificadoDigital.keyCacheStats().missCount()).isEqualTo(misses);
+
+		Element assinatura = (Element) segundo.getElementsByTagNameNS(XMLSignature.XMLNS, "X509Certificate").item(0);
+		Element original = (Element) primeiro.getElementsByTagNameNS(XMLSignature.XMLNS, "X509Certificate").item(0);
+		assinatura.setTextContent(original.getTextContent());
+		assertThat(certificadoDigital.validate(segundo)).isFalse();
+	}
+
+	private static String value(Document document, String localName) {
+		return document.getElementsByTagNameNS(XMLSignature.XMLNS, localName).item(0).getTextContent()
+				.replaceAll("\\s", "");
+	}
+
+	private static Element firstElementChild(Element element) {
+		for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+			if (child.getNodeType() == Node.ELEMENT_NODE) {
+				return (Element) child;
+			}
+		}
+		return null;
+	}
+
+	private static Document parse(byte[] bytes) throws Exception {
+		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+		factory.setNamespaceAware(true);
+		return factory.newDocumentBuilder().parse(new InputSource(new ByteArrayInputStream(bytes)));
+	}
+
+}
@@ -23,6 +23,12 @@ package me.yanaga.opes;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class CnpjTest {
@@ -108,4 +114,83 @@ public class CnpjTest {
 		assertThat(Cnpj.of("19861350000170").compareTo(Cnpj.of("19861350000170")) == 0).isTrue();
 	}
 
+	@Test
+	public void testOfLong() {
+		assertThat(Cnpj.ofLong(6074614000102L)).isEqualTo(Cnpj.of("06.074.614/0001-02"));
+		assertThat(Cnpj.ofLong(6074614000102L).toString()).isEqualTo("06074614000102");
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testOfLongInvalid() {
+		Cnpj.ofLong(6074614000103L);
+	}
+
+	@Test
+	public void testToLong() {
+		assertThat(Cnpj.of("19.861.350/0001-70").toLong()).isEqualTo(19861350000170L);
+	}
+
+	@Test(dataProvider = "cnpjsInvalidos")
+	public void testTryParseInvalid(String s) {
+		assertThat(Cnpj.tryParse(s).isValid()).isFalse();
+	}
+
+	@Test
+	public void testTryParse() {
+		assertThat(Cnpj.tryParse("19.861.350/0001-70").get()).isEqualTo(Cnpj.of("19861350000170"));
+		assertThat(Cnpj.tryParse("1986135000017").getError()).isEqualTo(ParseError.WRONG_LENGTH);
+		assertThat(Cnpj.tryParse("22222222222222").getError()).isEqualTo(ParseError.REPEATED_DIGITS);
+		assertThat(Cnpj.tryParse("19.861.350/0001-80").getError()).isEqualTo(ParseError.FIRST_CHECK_DIGIT);
+		assertThat(Cnpj.tryParse("19.861.350/0001-71").getError()).isEqualTo(ParseError.SECOND_CHECK_DIGIT);
+	}
+
+	@Test
+	public void testValidateAll() {
+		String[] in = { "06.305.901/0001-77", "19.861.350/0001-70", "06074614000102" };
+		BitSet valid = new BitSet();
+		long[] digits = new long[in.length];
+		assertThat(Cnpj.validateAll(in, valid, digits)).isEqualTo(2);
+		assertThat(valid.toString()).isEqualTo("{1, 2}");
+		assertThat(digits).containsExactly(-1L, 19861350000170L, 6074614000102L);
+	}
+
+	@Test
+	public void testOfBytes() {
+		byte[] bytes = "19.861.350/0001-70".getBytes(StandardCharsets.US_ASCII);
+		assertThat(Cnpj.of(bytes, 0, bytes.length)).isEqualTo(Cnpj.of("19861350000170"));
+		assertThat(Cnpj.of(ByteBuffer.wrap(bytes))).isEqualTo(Cnpj.of("19861350000170"));
+		assertThat(Cnpj.of(new StringBuilder("[19.861.350/0001-70]"), 1, 19)).isEqualTo(Cnpj.of("19861350000170"));
+	}
+
+	@Test
+	public void testFormatToWidth() {
+		assertThat(String.format("[%20s]", Cnpj.of("06074614000102"))).isEqualTo("[  06.074.614/0001-02]");
+		assertThat(String.format("[%-20s]", Cnpj.of("06074614000102"))).isEqualTo("[06.074.614/0001-02  ]");
+		assertThat(String.format("[%16s]", Cnpj.of("06074614000102"))).isEqualTo("[06.074.614/0001-02]");
+	}
+
+	@Test
+	public void testAppendTo() throws IOException {
+		assertThat(Cnpj.of("06074614000102").appendTo(new StringBuilder("x"), true).toString()).isEqualTo("x06.074.614/0001-02");
+		assertThat(Cnpj.of("06074614000102").appendTo(new StringBuilder(), false).toString()).isEqualTo("06074614000102");
+		StringWriter writer = new StringWriter();
+		assertThat(Cnpj.of("06074614000102").appendTo(writer, true)).isSameAs(writer);
+		assertThat(writer.toString()).isEqualTo("06.074.614/0001-02");
+	}
+
+	@Test
+	public void testWriteTo() {
+		char[] chars = new char[18 + 14 + 1];
+		int offset = Cnpj.of("06074614000102").writeTo(chars, 0, true);
+		assertThat(offset).isEqualTo(18);
+		chars[offset++] = ';';
+		assertThat(Cnpj.of("06074614000102").writeTo(chars, offset, false)).isEqualTo(chars.length);
+		assertThat(new String(chars)).isEqualTo("06.074.614/0001-02;06074614000102");
+	}
+
+	@Test(expectedExceptions = IndexOutOfBoundsException.class)
+	public void testWriteToOutOfBounds() {
+		Cnpj.of("06074614000102").writeTo(new char[18], 1, true);
+	}
+
 }
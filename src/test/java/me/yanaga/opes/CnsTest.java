@@ -23,6 +23,16 @@ package me.yanaga.opes;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class CnsTest {
@@ -64,6 +74,16 @@ public class CnsTest {
 		assertThat(Cns.of("190129759240015")).isNotNull();
 	}
 
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testOfPrefixoInvalido() {
+		Cns.of("390129759240018");
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testOfDefinitivoSemZeros() {
+		Cns.of("190129759241008");
+	}
+
 	@Test
 	public void testFormatTo() {
 		assertThat(String.format("%s", Cns.of("190129759240018"))).isEqualTo("190 1297 5924 0018");
@@ -75,4 +95,107 @@ public class CnsTest {
 		assertThat(String.format("%#20s", Cns.of("190129759240018"))).isEqualTo("00000190129759240018");
 	}
 
+	@Test
+	public void testEquals() {
+		assertThat(Cns.of("190129759240018")).isEqualTo(Cns.of("190 1297 5924 0018"));
+		assertThat(Cns.of("190129759240018").hashCode()).isEqualTo(Cns.of("190 1297 5924 0018").hashCode());
+		assertThat(Cns.of("190129759240018")).isNotEqualTo(Cns.of("898001038954985"));
+	}
+
+	@Test
+	public void testHashMapKey() {
+		Map<Cns, String> map = new HashMap<>();
+		map.put(Cns.of("190 1297 5924 0018"), "definitivo");
+		map.put(Cns.of("898 0010 3895 4985"), "provisorio");
+		map.put(Cns.of("898001038954985"), "provisorio");
+		assertThat(map).hasSize(2);
+		assertThat(map.get(Cns.of("190129759240018"))).isEqualTo("definitivo");
+		assertThat(map.get(Cns.ofLong(898001038954985L))).isEqualTo("provisorio");
+	}
+
+	@Test
+	public void testRestoPonderado() {
+		SplittableRandom random = new SplittableRandom(17);
+		for (int i = 0; i < 100_000; i++) {
+			long digits = random.nextLong(1_000_000_000_000_000L);
+			int soma = 0;
+			long resto = digits;
+			for (int peso = 1; peso <= 15; peso++) {
+				soma += (int) (resto % 10) * peso;
+				resto /= 10;
+			}
+			assertThat(Cns.restoPonderado(digits)).isEqualTo(soma % 11);
+		}
+	}
+
+	@Test
+	public void testOfLong() {
+		assertThat(Cns.ofLong(898001038954985L)).isEqualTo(Cns.of("898001038954985"));
+		assertThat(Cns.of("898001038954985").toLong()).isEqualTo(898001038954985L);
+	}
+
+	@Test
+	public void testCompareTo() {
+		assertThat(Cns.of("898001038954985").compareTo(Cns.of("190129759240018")) > 0).isTrue();
+		assertThat(Cns.of("190129759240018").compareTo(Cns.of("190129759240018")) == 0).isTrue();
+	}
+
+	@Test
+	public void testTryParse() {
+		assertThat(Cns.tryParse("190129759240018").get()).isEqualTo(Cns.of("190129759240018"));
+		assertThat(Cns.tryParse("19012975924001").getError()).isEqualTo(ParseError.WRONG_LENGTH);
+		assertThat(Cns.tryParse("777777777777777").getError()).isEqualTo(ParseError.REPEATED_DIGITS);
+		assertThat(Cns.tryParse("390129759240018").getError()).isEqualTo(ParseError.INVALID_PREFIX);
+		assertThat(Cns.tryParse("190129759240017").getError()).isEqualTo(ParseError.CHECK_DIGIT);
+	}
+
+	@Test
+	public void testValidateAll() {
+		BitSet valid = new BitSet();
+		long[] digits = new long[3];
+		assertThat(Cns.validateAll(Arrays.asList("190129759240018", "190129759240017", "898 0010 3895 4985"), valid, digits))
+				.isEqualTo(2);
+		assertThat(valid.toString()).isEqualTo("{0, 2}");
+		assertThat(digits).containsExactly(190129759240018L, -1L, 898001038954985L);
+	}
+
+	@Test
+	public void testOfBytes() {
+		byte[] bytes = "898 0010 3895 4985".getBytes(StandardCharsets.US_ASCII);
+		assertThat(Cns.of(bytes, 0, bytes.length)).isEqualTo(Cns.of("898001038954985"));
+		assertThat(Cns.of(ByteBuffer.wrap(bytes))).isEqualTo(Cns.of("898001038954985"));
+		assertThat(Cns.of("cns:898001038954985", 4, 19)).isEqualTo(Cns.of("898001038954985"));
+	}
+
+	@Test
+	public void testFormatToWidth() {
+		assertThat(String.format("[%20s]", Cns.of("898001038954985"))).isEqualTo("[  898 0010 3895 4985]");
+		assertThat(String.format("[%-20s]", Cns.of("898001038954985"))).isEqualTo("[898 0010 3895 4985  ]");
+		assertThat(String.format("[%16s]", Cns.of("898001038954985"))).isEqualTo("[898 0010 3895 4985]");
+	}
+
+	@Test
+	public void testAppendTo() throws IOException {
+		assertThat(Cns.of("898001038954985").appendTo(new StringBuilder("x"), true).toString()).isEqualTo("x898 0010 3895 4985");
+		assertThat(Cns.of("898001038954985").appendTo(new StringBuilder(), false).toString()).isEqualTo("898001038954985");
+		StringWriter writer = new StringWriter();
+		assertThat(Cns.of("898001038954985").appendTo(writer, true)).isSameAs(writer);
+		assertThat(writer.toString()).isEqualTo("898 0010 3895 4985");
+	}
+
+	@Test
+	public void testWriteTo() {
+		char[] chars = new char[18 + 15 + 1];
+		int offset = Cns.of("898001038954985").writeTo(chars, 0, true);
+		assertThat(offset).isEqualTo(18);
+		chars[offset++] = ';';
+		assertThat(Cns.of("898001038954985").writeTo(chars, offset, false)).isEqualTo(chars.length);
+		assertThat(new String(chars)).isEqualTo("898 0010 3895 4985;898001038954985");
+	}
+
+	@Test(expectedExceptions = IndexOutOfBoundsException.class)
+	public void testWriteToOutOfBounds() {
+		Cns.of("898001038954985").writeTo(new char[18], 1, true);
+	}
+
 }
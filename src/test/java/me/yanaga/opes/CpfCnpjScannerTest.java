@@ -0,0 +1,126 @@
+package me.yanaga.opes;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CpfCnpjScannerTest {
+
+	@Test
+	public void testLines() throws IOException {
+		Path file = Files.createTempFile("documentos", ".txt");
+		try {
+			String content = "185.302.491-00\n19861350000170\r\n\n046.428.359-04\n123\n19.861.350/0001-70";
+			Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+			List<CpfCnpjScanner.Linha> linhas;
+			try (Stream<CpfCnpjScanner.Linha> stream = CpfCnpjScanner.lines(file)) {
+				linhas = stream.collect(Collectors.toList());
+			}
+			assertThat(linhas).hasSize(6);
+
+			assertThat(linhas.get(0).getOffset()).isEqualTo(0);
+			assertThat(linhas.get(0).isValid()).isTrue();
+			assertThat(linhas.get(0).isCnpj()).isFalse();
+			assertThat(linhas.get(0).getDigits()).isEqualTo(18530249100L);
+			assertThat(linhas.get(0).getCpfCnpj().get()).isEqualTo(CpfCnpj.of("18530249100"));
+
+			assertThat(linhas.get(1).getOffset()).isEqualTo(15);
+			assertThat(linhas.get(1).isValid()).isTrue();
+			assertThat(linhas.get(1).isCnpj()).isTrue();
+			assertThat(linhas.get(1).getCpfCnpj().get()).isEqualTo(CpfCnpj.of("19861350000170"));
+
+			assertThat(linhas.get(2).getError()).isEqualTo(ParseError.WRONG_LENGTH);
+			assertThat(linhas.get(2).getDigits()).isEqualTo(-1);
+
+			assertThat(linhas.get(3).isValid()).isFalse();
+			assertThat(linhas.get(3).getDigits()).isEqualTo(4642835904L);
+			assertThat(linhas.get(3).getError()).isEqualTo(ParseError.SECOND_CHECK_DIGIT);
+			assertThat(linhas.get(3).getCpfCnpj().isPresent()).isFalse();
+
+			assertThat(linhas.get(4).getError()).isEqualTo(ParseError.WRONG_LENGTH);
+
+			assertThat(linhas.get(5).getOffset()).isEqualTo(content.lastIndexOf('\n') + 1);
+			assertThat(linhas.get(5).getDigits()).isEqualTo(19861350000170L);
+			assertThat(linhas.get(5).isValid()).isTrue();
+		}
+		finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void testEmptyFile() throws IOException {
+		Path file = Files.createTempFile("documentos", ".txt");
+		try (Stream<CpfCnpjScanner.Linha> stream = CpfCnpjScanner.lines(file)) {
+			assertThat(stream.count()).isZero();
+		}
+		finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void testParallelMatchesSequential() throws IOException {
+		long[] cpfs = CpfSetTest.validCpfs(400_000);
+		Path file = Files.createTempFile("documentos", ".txt");
+		try {
+			try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+				for (int i = 0; i < cpfs.length; i++) {
+					writer.write(i % 2 == 0 ? Cpf.ofLong(cpfs[i]).toString() : String.format("%s", Cpf.ofLong(cpfs[i])));
+					writer.write(i % 1000 == 0 ? "x\n" : "\n");
+				}
+			}
+			List<Long> sequential;
+			try (Stream<CpfCnpjScanner.Linha> stream = CpfCnpjScanner.lines(file)) {
+				sequential = stream.map(CpfCnpjScanner.Linha::getDigits).collect(Collectors.toList());
+			}
+			List<Long> parallel;
+			long valid;
+			try (Stream<CpfCnpjScanner.Linha> stream = CpfCnpjScanner.lines(file).parallel()) {
+				parallel = stream.map(CpfCnpjScanner.Linha::getDigits).collect(Collectors.toList());
+			}
+			try (Stream<CpfCnpjScanner.Linha> stream = CpfCnpjScanner.lines(file).parallel()) {
+				valid = stream.filter(CpfCnpjScanner.Linha::isValid).count();
+			}
+			assertThat(sequential).hasSize(cpfs.length);
+			assertThat(parallel).isEqualTo(sequential);
+			for (int i = 0; i < cpfs.length; i++) {
+				assertThat(sequential.get(i)).isEqualTo(cpfs[i]);
+			}
+			assertThat(valid).isEqualTo(cpfs.length);
+		}
+		finally {
+			Files.delete(file);
+		}
+	}
+
+}
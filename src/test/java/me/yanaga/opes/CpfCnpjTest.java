@@ -27,6 +27,13 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.NoSuchElementException;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -96,6 +103,18 @@ public class CpfCnpjTest {
 		assertThat(CpfCnpj.of("18530249100").compareTo(CpfCnpj.of("29727693172")) < 0).isTrue();
 		assertThat(CpfCnpj.of("18530249100").compareTo(CpfCnpj.of("18530249100")) == 0).isTrue();
 		assertThat(CpfCnpj.of("19861350000170").compareTo(CpfCnpj.of("00881753000153")) > 0).isTrue();
+		assertThat(CpfCnpj.of("00881753000153").compareTo(CpfCnpj.of("29727693172")) > 0).isTrue();
+		assertThat(CpfCnpj.of("29727693172").compareTo(CpfCnpj.of("00881753000153")) < 0).isTrue();
+	}
+
+	@Test
+	public void testEqualsAndHashCodeAcrossTypes() {
+		assertThat(CpfCnpj.of("185.302.491-00")).isEqualTo(CpfCnpj.of("18530249100"));
+		assertThat(CpfCnpj.of("185.302.491-00").hashCode()).isEqualTo(CpfCnpj.of("18530249100").hashCode());
+		assertThat(CpfCnpj.of("00.000.000/0001-91").isCnpj()).isTrue();
+		assertThat(CpfCnpj.of("00.000.000/0001-91").toString()).isEqualTo("00000000000191");
+		assertThat(CpfCnpj.of("00.000.000/0001-91").getCnpj().get()).isEqualTo(Cnpj.of("00000000000191"));
+		assertThat(CpfCnpj.of("00.000.000/0001-91").compareTo(CpfCnpj.of("29727693172")) > 0).isTrue();
 	}
 
 	@Test
@@ -136,4 +155,98 @@ public class CpfCnpjTest {
 		assertThat(cpfCnpj1).isEqualTo(cpfCnpj2);
 	}
 
+	@Test
+	public void testDeserializationOfLegacyProxy() throws IOException, ClassNotFoundException {
+		String cpf = "rO0ABXNyACltZS55YW5hZ2Eub3Blcy5DcGZDbnBqJFNlcmlhbGl6YXRpb25Qcm94ecXG/lDaZYWwAgABTAAFdmFsdWV0ABJMamF2YS9s"
+				+ "YW5nL1N0cmluZzt4cHQACzM0NjA4NTE0MzAw";
+		String cnpj = "rO0ABXNyACltZS55YW5hZ2Eub3Blcy5DcGZDbnBqJFNlcmlhbGl6YXRpb25Qcm94ecXG/lDaZYWwAgABTAAFdmFsdWV0ABJMamF2YS9s"
+				+ "YW5nL1N0cmluZzt4cHQADjEyMzQ1Njc4MDAwMTk1";
+		try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(cpf)))) {
+			assertThat(ois.readObject()).isEqualTo(CpfCnpj.of("34608514300"));
+		}
+		try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(cnpj)))) {
+			assertThat(ois.readObject()).isEqualTo(CpfCnpj.of("12345678000195"));
+		}
+	}
+
+	@Test
+	public void testTryParse() {
+		assertThat(CpfCnpj.tryParse("297.276.931-72").get()).isEqualTo(CpfCnpj.of("29727693172"));
+		assertThat(CpfCnpj.tryParse("19.861.350/0001-70").get()).isEqualTo(CpfCnpj.of("19861350000170"));
+		assertThat(CpfCnpj.tryParse("012345678901").getError()).isEqualTo(ParseError.WRONG_LENGTH);
+		assertThat(CpfCnpj.tryParse("046.428.359-02").getError()).isEqualTo(ParseError.SECOND_CHECK_DIGIT);
+		assertThat(CpfCnpj.tryParse("19.861.350/0001-80").getError()).isEqualTo(ParseError.FIRST_CHECK_DIGIT);
+	}
+
+	@Test(expectedExceptions = NoSuchElementException.class)
+	public void testTryParseGetInvalid() {
+		CpfCnpj.tryParse("012345678901").get();
+	}
+
+	@Test
+	public void testValidateAll() {
+		String[] in = { "297.276.931-72", "19.861.350/0001-70", "012345678901", "046.428.359-02" };
+		BitSet valid = new BitSet();
+		BitSet cnpj = new BitSet();
+		long[] digits = new long[in.length];
+		assertThat(CpfCnpj.validateAll(in, valid, cnpj, digits)).isEqualTo(2);
+		assertThat(valid.toString()).isEqualTo("{0, 1}");
+		assertThat(cnpj.toString()).isEqualTo("{1}");
+		assertThat(digits).containsExactly(29727693172L, 19861350000170L, -1L, -1L);
+	}
+
+	@Test
+	public void testValidateAllList() {
+		BitSet valid = new BitSet();
+		assertThat(CpfCnpj.validateAll(Arrays.asList("00881753000153", "0123456789"), valid)).isEqualTo(1);
+		assertThat(valid.toString()).isEqualTo("{0}");
+	}
+
+	@Test
+	public void testOfBytes() {
+		byte[] bytes = "297.276.931-72|19.861.350/0001-70".getBytes(StandardCharsets.US_ASCII);
+		assertThat(CpfCnpj.of(bytes, 0, 14)).isEqualTo(CpfCnpj.of("29727693172"));
+		assertThat(CpfCnpj.of(bytes, 15, 18)).isEqualTo(CpfCnpj.of("19861350000170"));
+		ByteBuffer buffer = ByteBuffer.wrap(bytes);
+		buffer.position(15);
+		assertThat(CpfCnpj.of(buffer).isCnpj()).isTrue();
+		assertThat(CpfCnpj.of("297.276.931-72|19.861.350/0001-70", 0, 14).isCpf()).isTrue();
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testOfBytesInvalid() {
+		CpfCnpj.of("012345678901".getBytes(StandardCharsets.US_ASCII), 0, 12);
+	}
+
+	@Test
+	public void testFormatToWidth() {
+		assertThat(String.format("[%20s]", CpfCnpj.of("06074614000102"))).isEqualTo("[  06.074.614/0001-02]");
+		assertThat(String.format("[%-20s]", CpfCnpj.of("06074614000102"))).isEqualTo("[06.074.614/0001-02  ]");
+		assertThat(String.format("[%16s]", CpfCnpj.of("06074614000102"))).isEqualTo("[06.074.614/0001-02]");
+	}
+
+	@Test
+	public void testAppendTo() throws IOException {
+		assertThat(CpfCnpj.of("06074614000102").appendTo(new StringBuilder("x"), true).toString()).isEqualTo("x06.074.614/0001-02");
+		assertThat(CpfCnpj.of("06074614000102").appendTo(new StringBuilder(), false).toString()).isEqualTo("06074614000102");
+		StringWriter writer = new StringWriter();
+		assertThat(CpfCnpj.of("06074614000102").appendTo(writer, true)).isSameAs(writer);
+		assertThat(writer.toString()).isEqualTo("06.074.614/0001-02");
+	}
+
+	@Test
+	public void testWriteTo() {
+		char[] chars = new char[18 + 14 + 1];
+		int offset = CpfCnpj.of("06074614000102").writeTo(chars, 0, true);
+		assertThat(offset).isEqualTo(18);
+		chars[offset++] = ';';
+		assertThat(CpfCnpj.of("06074614000102").writeTo(chars, offset, false)).isEqualTo(chars.length);
+		assertThat(new String(chars)).isEqualTo("06.074.614/0001-02;06074614000102");
+	}
+
+	@Test(expectedExceptions = IndexOutOfBoundsException.class)
+	public void testWriteToOutOfBounds() {
+		CpfCnpj.of("06074614000102").writeTo(new char[18], 1, true);
+	}
+
 }
@@ -0,0 +1,197 @@
+package me.yanaga.opes;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CpfColumnTest {
+
+	@Test
+	public void testAppendAndGet() {
+		long[] cpfs = CpfSetTest.validCpfs(5_000);
+		CpfColumn column = new CpfColumn(1);
+		assertThat(column.isEmpty()).isTrue();
+		column.append(Cpf.of("185.302.491-00"));
+		for (long cpf : cpfs) {
+			column.append(cpf);
+		}
+		assertThat(column.size()).isEqualTo(cpfs.length + 1);
+		assertThat(column.get(0)).isEqualTo(Cpf.of("18530249100"));
+		for (int i = 0; i < cpfs.length; i++) {
+			assertThat(column.getLong(i + 1)).isEqualTo(cpfs[i]);
+		}
+		List<Long> values = new ArrayList<>();
+		column.forEachLong(values::add);
+		assertThat(values).hasSize(column.size()).startsWith(18530249100L, cpfs[0]);
+		int count = 0;
+		for (Cpf cpf : column) {
+			assertThat(cpf.toLong()).isEqualTo(values.get(count++));
+		}
+		assertThat(count).isEqualTo(column.size());
+		column.clear();
+		assertThat(column.size()).isZero();
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testAppendInvalidLong() {
+		new CpfColumn().append(18530249101L);
+	}
+
+	@Test(expectedExceptions = IndexOutOfBoundsException.class)
+	public void testGetOutOfBounds() {
+		CpfColumn column = new CpfColumn();
+		column.append(18530249100L);
+		column.get(1);
+	}
+
+	@Test
+	public void testWriteToAndOpen() throws IOException {
+		long[] cpfs = CpfSetTest.validCpfs(3_000);
+		Path file = Files.createTempFile("cpf", ".col");
+		try {
+			CpfColumn column = new CpfColumn();
+			for (long cpf : cpfs) {
+				column.append(cpf);
+			}
+			column.writeTo(file);
+			assertThat(Files.size(file)).isEqualTo(16 + cpfs.length * 8L);
+
+			try (CpfColumn mapped = CpfColumn.open(file)) {
+				assertThat(mapped.size()).isEqualTo(cpfs.length);
+				for (int i = 0; i < cpfs.length; i++) {
+					assertThat(mapped.getLong(i)).isEqualTo(cpfs[i]);
+				}
+				mapped.append(Cpf.of("046.428.359-03"));
+			}
+			try (CpfColumn mapped = CpfColumn.open(file)) {
+				assertThat(mapped.size()).isEqualTo(cpfs.length + 1);
+				assertThat(mapped.get(cpfs.length)).isEqualTo(Cpf.of("04642835903"));
+			}
+		}
+		finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void testOpenEmptyFile() throws IOException {
+		long[] cpfs = CpfSetTest.validCpfs(2_000);
+		Path file = Files.createTempFile("cpf", ".col");
+		try {
+			try (CpfColumn column = CpfColumn.open(file)) {
+				for (long cpf : cpfs) {
+					column.append(cpf);
+				}
+			}
+			try (CpfColumn column = CpfColumn.open(file)) {
+				assertThat(column.size()).isEqualTo(cpfs.length);
+				assertThat(column.getLong(cpfs.length - 1)).isEqualTo(cpfs[cpfs.length - 1]);
+			}
+		}
+		finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void testAppendAfterEmptyRoundTrip() throws IOException {
+		long[] cpfs = CpfSetTest.validCpfs(2);
+		Path file = Files.createTempFile("cpf", ".col");
+		try {
+			new CpfColumn().writeTo(file);
+			try (CpfColumn column = CpfColumn.open(file)) {
+				assertThat(column.isEmpty()).isTrue();
+				column.append(cpfs[0]);
+				column.append(cpfs[1]);
+				assertThat(column.getLong(1)).isEqualTo(cpfs[1]);
+			}
+			try (CpfColumn column = CpfColumn.open(file)) {
+				assertThat(column.size()).isEqualTo(2);
+			}
+		}
+		finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testOpenCorruptedFile() throws IOException {
+		Path file = Files.createTempFile("cpf", ".col");
+		try {
+			CpfColumn column = new CpfColumn();
+			column.append(Cpf.of("046.428.359-03"));
+			column.append(Cpf.of("185.302.491-00"));
+			column.writeTo(file);
+			byte[] bytes = Files.readAllBytes(file);
+			bytes[16 + 8] ^= 1;
+			Files.write(file, bytes);
+			CpfColumn.open(file);
+		}
+		finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test(expectedExceptions = IllegalStateException.class)
+	public void testAppendAfterClose() throws IOException {
+		Path file = Files.createTempFile("cpf", ".col");
+		try {
+			CpfColumn column = CpfColumn.open(file);
+			column.close();
+			column.append(18530249100L);
+		}
+		finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testOpenWrongDocumentType() throws IOException {
+		Path file = Files.createTempFile("cnpj", ".col");
+		try {
+			CnpjColumn column = new CnpjColumn();
+			column.append(Cnpj.of("19.861.350/0001-70"));
+			column.writeTo(file);
+			CpfColumn.open(file);
+		}
+		finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void testCnsColumn() {
+		CnsColumn column = new CnsColumn();
+		column.append(Cns.of("190 1297 5924 0018"));
+		column.append(898001038954985L);
+		assertThat(column.get(0)).isEqualTo(Cns.of("190129759240018"));
+		assertThat(column.getLong(1)).isEqualTo(898001038954985L);
+	}
+
+}
@@ -0,0 +1,137 @@
+package me.yanaga.opes;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CpfMapTest {
+
+	@Test
+	public void testPutGetRemove() {
+		CpfMap<String> map = new CpfMap<>();
+		assertThat(map.put(Cpf.of("185.302.491-00"), "a")).isNull();
+		assertThat(map.put(18530249100L, "b")).isEqualTo("a");
+		assertThat(map.get(Cpf.of("18530249100"))).isEqualTo("b");
+		assertThat(map.get(18530249100L)).isEqualTo("b");
+		assertThat(map.get("18530249100")).isNull();
+		assertThat(map.containsKey(18530249100L)).isTrue();
+		assertThat(map.containsKey(Cpf.of("04642835903"))).isFalse();
+		assertThat(map.remove(18530249100L)).isEqualTo("b");
+		assertThat(map.get(18530249100L)).isNull();
+		assertThat(map).isEmpty();
+	}
+
+	@Test
+	public void testConcurrentMapOperations() {
+		CpfMap<Integer> map = new CpfMap<>();
+		Cpf cpf = Cpf.of("29727693172");
+		assertThat(map.putIfAbsent(cpf, 1)).isNull();
+		assertThat(map.putIfAbsent(cpf, 2)).isEqualTo(1);
+		assertThat(map.replace(cpf, 2, 3)).isFalse();
+		assertThat(map.replace(cpf, 1, 3)).isTrue();
+		assertThat(map.replace(cpf, 4)).isEqualTo(3);
+		assertThat(map.remove(cpf, 3)).isFalse();
+		assertThat(map.merge(cpf, 1, Integer::sum)).isEqualTo(5);
+		assertThat(map.computeIfAbsent(Cpf.of("18530249100"), c -> 7)).isEqualTo(7);
+		assertThat(map.remove(cpf, 5)).isTrue();
+		assertThat(map).hasSize(1);
+	}
+
+	@Test
+	public void testGrowAndIterate() {
+		long[] cpfs = CpfSetTest.validCpfs(10_000);
+		CpfMap<Long> map = new CpfMap<>(0, 2);
+		Map<Cpf, Long> expected = new HashMap<>();
+		for (long cpf : cpfs) {
+			map.put(cpf, cpf);
+			expected.put(Cpf.ofLong(cpf), cpf);
+		}
+		assertThat(map).hasSize(cpfs.length);
+		assertThat(map).isEqualTo(expected);
+		assertThat(new HashMap<>(map)).isEqualTo(expected);
+		for (long cpf : cpfs) {
+			assertThat(map.get(cpf)).isEqualTo(cpf);
+		}
+		map.entrySet().removeIf(e -> e.getValue() % 2 == 0);
+		for (Map.Entry<Cpf, Long> entry : map.entrySet()) {
+			assertThat(entry.getKey().toLong()).isEqualTo(entry.getValue());
+			assertThat(entry.getValue() % 2).isEqualTo(1);
+		}
+	}
+
+	@Test
+	public void testGetDuringChurn() throws Exception {
+		long[] cpfs = CpfSetTest.validCpfs(12);
+		CpfMap<Long> map = new CpfMap<>(0, 1);
+		AtomicBoolean running = new AtomicBoolean(true);
+		AtomicReference<String> wrong = new AtomicReference<>();
+		List<Thread> readers = new ArrayList<>();
+		for (int r = 0; r < 3; r++) {
+			Thread reader = new Thread(() -> {
+				while (running.get() && wrong.get() == null) {
+					for (long cpf : cpfs) {
+						Long value = map.get(cpf);
+						if (value != null && value != cpf) {
+							wrong.set(cpf + " -> " + value);
+						}
+					}
+				}
+			});
+			reader.start();
+			readers.add(reader);
+		}
+		Random random = new Random(42);
+		for (int i = 0; i < 2_000_000 && wrong.get() == null; i++) {
+			map.remove(cpfs[random.nextInt(cpfs.length)]);
+			long cpf = cpfs[random.nextInt(cpfs.length)];
+			map.put(cpf, cpf);
+		}
+		running.set(false);
+		for (Thread reader : readers) {
+			reader.join();
+		}
+		assertThat(wrong.get()).isNull();
+	}
+
+	@Test(expectedExceptions = NullPointerException.class)
+	public void testPutNullValue() {
+		new CpfMap<String>().put(Cpf.of("18530249100"), null);
+	}
+
+	@Test
+	public void testCnpjMap() {
+		CnpjMap<String> map = new CnpjMap<>();
+		map.put(Cnpj.of("19.861.350/0001-70"), "emitente");
+		assertThat(map.get(19861350000170L)).isEqualTo("emitente");
+		assertThat(map.get(Cpf.of("18530249100"))).isNull();
+	}
+
+}
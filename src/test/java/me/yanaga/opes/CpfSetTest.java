@@ -0,0 +1,196 @@
+package me.yanaga.opes;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CpfSetTest {
+
+	static long[] validCpfs(int count) {
+		long[] cpfs = new long[count];
+		int i = 0;
+		for (long value = 10_000_000_000L; i < count; value += 7) {
+			if (Cpf.isValid(value)) {
+				cpfs[i++] = value;
+			}
+		}
+		return cpfs;
+	}
+
+	@Test
+	public void testAddContainsRemove() {
+		CpfSet set = new CpfSet();
+		assertThat(set.add(Cpf.of("185.302.491-00"))).isTrue();
+		assertThat(set.add(Cpf.of("18530249100"))).isFalse();
+		assertThat(set.add(4642835903L)).isTrue();
+		assertThat(set).hasSize(2);
+		assertThat(set.contains(Cpf.of("046.428.359-03"))).isTrue();
+		assertThat(set.contains(18530249100L)).isTrue();
+		assertThat(set.contains(29727693172L)).isFalse();
+		assertThat(set.contains("18530249100")).isFalse();
+		assertThat(set.contains(-1L)).isFalse();
+		assertThat(set.remove(Cpf.of("18530249100"))).isTrue();
+		assertThat(set.remove(18530249100L)).isFalse();
+		assertThat(set).containsOnly(Cpf.of("04642835903"));
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testAddInvalidLong() {
+		new CpfSet().add(4642835902L);
+	}
+
+	@Test
+	public void testGrowAndRemoveAll() {
+		long[] cpfs = validCpfs(20_000);
+		CpfSet set = new CpfSet();
+		for (long cpf : cpfs) {
+			assertThat(set.add(cpf)).isTrue();
+		}
+		assertThat(set).hasSize(cpfs.length);
+		for (long cpf : cpfs) {
+			assertThat(set.contains(cpf)).isTrue();
+		}
+		for (int i = 0; i < cpfs.length; i += 2) {
+			assertThat(set.remove(cpfs[i])).isTrue();
+		}
+		assertThat(set).hasSize(cpfs.length / 2);
+		for (int i = 0; i < cpfs.length; i++) {
+			assertThat(set.contains(cpfs[i])).isEqualTo(i % 2 == 1);
+		}
+		for (int i = 0; i < cpfs.length; i += 2) {
+			assertThat(set.add(cpfs[i])).isTrue();
+		}
+		assertThat(set).hasSize(cpfs.length);
+	}
+
+	@Test
+	public void testIterator() {
+		long[] cpfs = validCpfs(1_000);
+		CpfSet set = new CpfSet(cpfs.length);
+		Set<Cpf> expected = new HashSet<>();
+		for (long cpf : cpfs) {
+			set.add(cpf);
+			expected.add(Cpf.ofLong(cpf));
+		}
+		assertThat(new HashSet<>(set)).isEqualTo(expected);
+		assertThat(set).isEqualTo(expected);
+
+		List<Long> visited = new ArrayList<>();
+		set.forEachLong(visited::add);
+		assertThat(visited).hasSize(cpfs.length);
+
+		for (Iterator<Cpf> iterator = set.iterator(); iterator.hasNext(); ) {
+			if (iterator.next().toLong() % 2 == 0) {
+				iterator.remove();
+			}
+		}
+		for (Cpf cpf : set) {
+			assertThat(cpf.toLong() % 2).isEqualTo(1);
+		}
+		set.clear();
+		assertThat(set).isEmpty();
+	}
+
+	@Test
+	public void testConcurrentReadersAndWriters() throws Exception {
+		long[] cpfs = validCpfs(50_000);
+		CpfSet set = new CpfSet(0, 4);
+		for (int i = 0; i < 1_000; i++) {
+			set.add(cpfs[i]);
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(6);
+		try {
+			AtomicBoolean done = new AtomicBoolean();
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<?>> readers = new ArrayList<>();
+			for (int r = 0; r < 2; r++) {
+				readers.add(executor.submit(() -> {
+					start.await();
+					while (!done.get()) {
+						for (int i = 0; i < 1_000; i++) {
+							assertThat(set.contains(cpfs[i])).isTrue();
+						}
+					}
+					return null;
+				}));
+			}
+			List<Future<?>> writers = new ArrayList<>();
+			for (int w = 0; w < 4; w++) {
+				int offset = w;
+				writers.add(executor.submit(() -> {
+					start.await();
+					for (int i = 1_000 + offset; i < cpfs.length; i += 4) {
+						set.add(cpfs[i]);
+						if (i % 3 == 0) {
+							set.remove(cpfs[i]);
+						}
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> writer : writers) {
+				writer.get(30, TimeUnit.SECONDS);
+			}
+			done.set(true);
+			for (Future<?> reader : readers) {
+				reader.get(30, TimeUnit.SECONDS);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		int expected = 1_000;
+		for (int i = 1_000; i < cpfs.length; i++) {
+			assertThat(set.contains(cpfs[i])).isEqualTo(i % 3 != 0);
+			if (i % 3 != 0) {
+				expected++;
+			}
+		}
+		assertThat(set).hasSize(expected);
+	}
+
+	@Test
+	public void testCnpjSet() {
+		CnpjSet set = new CnpjSet();
+		set.add(Cnpj.of("19.861.350/0001-70"));
+		set.add(6074614000102L);
+		assertThat(set.contains(Cnpj.of("06.074.614/0001-02"))).isTrue();
+		assertThat(set.contains(19861350000170L)).isTrue();
+		assertThat(set.contains(Cpf.of("18530249100"))).isFalse();
+		assertThat(set).hasSize(2);
+	}
+
+}
@@ -23,6 +23,13 @@ package me.yanaga.opes;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class CpfTest {
@@ -81,6 +88,12 @@ public class CpfTest {
 		Cpf.of("012345678901234");
 	}
 
+	@Test
+	public void testOfIgnoresNonDigits() {
+		assertThat(Cpf.of(" 185 302 491/00 ")).isEqualTo(Cpf.of("18530249100"));
+		assertThat(Cpf.of("cpf: 046.428.359-03")).isEqualTo(Cpf.of("04642835903"));
+	}
+
 	@Test
 	public void testToString() {
 		assertThat(Cpf.of("18530249100").toString()).isEqualTo("18530249100");
@@ -109,4 +122,132 @@ public class CpfTest {
 		assertThat(Cpf.of("29727693172").compareTo(Cpf.of("29727693172")) == 0).isTrue();
 	}
 
+	@Test
+	public void testOfLong() {
+		assertThat(Cpf.ofLong(18530249100L)).isEqualTo(Cpf.of("185.302.491-00"));
+		assertThat(Cpf.ofLong(4642835903L).toString()).isEqualTo("04642835903");
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testOfLongInvalid() {
+		Cpf.ofLong(4642835902L);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testOfLongOutOfRange() {
+		Cpf.ofLong(118530249100L);
+	}
+
+	@Test
+	public void testToLong() {
+		assertThat(Cpf.of("046.428.359-03").toLong()).isEqualTo(4642835903L);
+	}
+
+	@Test
+	public void testHashCode() {
+		assertThat(Cpf.of("185.302.491-00").hashCode()).isEqualTo(Cpf.of("18530249100").hashCode());
+	}
+
+	@Test(dataProvider = "cpfsValidos")
+	public void testTryParseValid(String s) {
+		ParseResult<Cpf> result = Cpf.tryParse(s);
+		assertThat(result.isValid()).isTrue();
+		assertThat(result.get()).isEqualTo(Cpf.of(s));
+		assertThat(result.getError()).isNull();
+	}
+
+	@Test(dataProvider = "cpfsInvalidos")
+	public void testTryParseInvalid(String s) {
+		assertThat(Cpf.tryParse(s).isValid()).isFalse();
+	}
+
+	@Test
+	public void testTryParseError() {
+		assertThat(Cpf.tryParse("0123456789").getError()).isEqualTo(ParseError.WRONG_LENGTH);
+		assertThat(Cpf.tryParse("012345678901").getError()).isEqualTo(ParseError.WRONG_LENGTH);
+		assertThat(Cpf.tryParse("111.111.111-11").getError()).isEqualTo(ParseError.REPEATED_DIGITS);
+		assertThat(Cpf.tryParse("046.428.359-13").getError()).isEqualTo(ParseError.FIRST_CHECK_DIGIT);
+		assertThat(Cpf.tryParse("046.428.359-02").getError()).isEqualTo(ParseError.SECOND_CHECK_DIGIT);
+	}
+
+	@Test
+	public void testValidateAll() {
+		CharSequence[] in = { "185.302.491-00", "046.428.359-02", null, "11111111111", new StringBuilder("04642835903") };
+		BitSet valid = new BitSet();
+		valid.set(1);
+		long[] digits = new long[in.length];
+		assertThat(Cpf.validateAll(in, valid, digits)).isEqualTo(2);
+		assertThat(valid.toString()).isEqualTo("{0, 4}");
+		assertThat(digits).containsExactly(18530249100L, -1L, -1L, -1L, 4642835903L);
+	}
+
+	@Test
+	public void testValidateAllList() {
+		BitSet valid = new BitSet();
+		assertThat(Cpf.validateAll(Arrays.asList("0123456789", "29727693172"), valid)).isEqualTo(1);
+		assertThat(valid.toString()).isEqualTo("{1}");
+	}
+
+	@Test
+	public void testOfCharSequenceWindow() {
+		assertThat(Cpf.of("cpf=185.302.491-00;", 4, 18)).isEqualTo(Cpf.of("18530249100"));
+	}
+
+	@Test
+	public void testOfBytes() {
+		byte[] bytes = "nome=Jos\u00e9;cpf=185.302.491-00;".getBytes(StandardCharsets.UTF_8);
+		assertThat(Cpf.of(bytes, 15, 14)).isEqualTo(Cpf.of("18530249100"));
+	}
+
+	@Test
+	public void testOfByteBuffer() {
+		ByteBuffer buffer = ByteBuffer.allocateDirect(32);
+		buffer.put("xx18530249100yy".getBytes(StandardCharsets.US_ASCII));
+		buffer.position(2).limit(13);
+		assertThat(Cpf.of(buffer)).isEqualTo(Cpf.of("18530249100"));
+		assertThat(buffer.position()).isEqualTo(2);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testOfBytesInvalid() {
+		byte[] bytes = "046.428.359-02".getBytes(StandardCharsets.US_ASCII);
+		Cpf.of(bytes, 0, bytes.length);
+	}
+
+	@Test(expectedExceptions = IndexOutOfBoundsException.class)
+	public void testOfBytesOutOfBounds() {
+		Cpf.of(new byte[11], 1, 11);
+	}
+
+	@Test
+	public void testFormatToWidth() {
+		assertThat(String.format("[%16s]", Cpf.of("04642835903"))).isEqualTo("[  046.428.359-03]");
+		assertThat(String.format("[%-16s]", Cpf.of("04642835903"))).isEqualTo("[046.428.359-03  ]");
+		assertThat(String.format("[%12s]", Cpf.of("04642835903"))).isEqualTo("[046.428.359-03]");
+	}
+
+	@Test
+	public void testAppendTo() throws IOException {
+		assertThat(Cpf.of("04642835903").appendTo(new StringBuilder("x"), true).toString()).isEqualTo("x046.428.359-03");
+		assertThat(Cpf.of("04642835903").appendTo(new StringBuilder(), false).toString()).isEqualTo("04642835903");
+		StringWriter writer = new StringWriter();
+		assertThat(Cpf.of("04642835903").appendTo(writer, true)).isSameAs(writer);
+		assertThat(writer.toString()).isEqualTo("046.428.359-03");
+	}
+
+	@Test
+	public void testWriteTo() {
+		char[] chars = new char[14 + 11 + 1];
+		int offset = Cpf.of("04642835903").writeTo(chars, 0, true);
+		assertThat(offset).isEqualTo(14);
+		chars[offset++] = ';';
+		assertThat(Cpf.of("04642835903").writeTo(chars, offset, false)).isEqualTo(chars.length);
+		assertThat(new String(chars)).isEqualTo("046.428.359-03;04642835903");
+	}
+
+	@Test(expectedExceptions = IndexOutOfBoundsException.class)
+	public void testWriteToOutOfBounds() {
+		Cpf.of("04642835903").writeTo(new char[14], 1, true);
+	}
+
 }
@@ -0,0 +1,126 @@
+package me.yanaga.opes;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.FormattableFlags;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DocumentWriterTest {
+
+	private static String written(ByteBuffer buffer) {
+		buffer.flip();
+		return StandardCharsets.US_ASCII.decode(buffer).toString();
+	}
+
+	@Test
+	public void testWriteFields() {
+		ByteBuffer buffer = ByteBuffer.allocate(256);
+		DocumentWriter.to(buffer)
+				.write(Cpf.of("18530249100")).write(';')
+				.write(Cnpj.of("19861350000170")).write(';')
+				.write(Cns.of("898001038954985")).write(';')
+				.write(Cep.of("87030020")).write(';')
+				.write(CpfCnpj.of("04642835903")).write(";fim")
+				.newLine();
+		assertThat(written(buffer))
+				.isEqualTo("185.302.491-00;19.861.350/0001-70;898 0010 3895 4985;87030-020;046.428.359-03;fim\n");
+	}
+
+	@Test
+	public void testUnmasked() {
+		ByteBuffer buffer = ByteBuffer.allocate(64);
+		DocumentWriter.to(buffer).masked(false).lineSeparator("\r\n")
+				.write(Cpf.of("185.302.491-00")).newLine()
+				.write(CpfCnpj.of("19.861.350/0001-70")).newLine();
+		assertThat(written(buffer)).isEqualTo("18530249100\r\n19861350000170\r\n");
+	}
+
+	@Test
+	public void testWidthMatchesFormatTo() {
+		Cpf cpf = Cpf.of("18530249100");
+		Object[][] casos = {
+				{ 20, 0, "%20s" },
+				{ 20, FormattableFlags.LEFT_JUSTIFY, "%-20s" },
+				{ 15, FormattableFlags.ALTERNATE, "%#15s" },
+				{ 5, 0, "%5s" }
+		};
+		for (Object[] caso : casos) {
+			ByteBuffer buffer = ByteBuffer.allocate(64);
+			DocumentWriter.to(buffer).width((Integer) caso[0], (Integer) caso[1]).write(cpf);
+			assertThat(written(buffer)).isEqualTo(String.format((String) caso[2], cpf));
+		}
+	}
+
+	@Test
+	public void testBulkToChannel() {
+		long[] cpfs = CpfSetTest.validCpfs(10_000);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (DocumentWriter writer = DocumentWriter.to(Channels.newChannel(out))) {
+			writer.writeCpfs(cpfs, 0, cpfs.length);
+			writer.writeCnpjs(new long[] { 19861350000170L }, 0, 1);
+			writer.writeCnpjs(Arrays.asList(Cnpj.of("06074614000102")));
+			writer.writeCpfCnpjs(Arrays.asList(CpfCnpj.of("18530249100")));
+		}
+		String[] linhas = new String(out.toByteArray(), StandardCharsets.US_ASCII).split("\n");
+		assertThat(linhas).hasSize(cpfs.length + 3);
+		for (int i = 0; i < cpfs.length; i++) {
+			assertThat(linhas[i]).isEqualTo(String.format("%s", Cpf.ofLong(cpfs[i])));
+		}
+		assertThat(linhas[cpfs.length]).isEqualTo("19.861.350/0001-70");
+		assertThat(linhas[cpfs.length + 1]).isEqualTo("06.074.614/0001-02");
+		assertThat(linhas[cpfs.length + 2]).isEqualTo("185.302.491-00");
+	}
+
+	@Test
+	public void testWideFieldToChannel() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (DocumentWriter writer = DocumentWriter.to(Channels.newChannel(out))) {
+			writer.width(100_000, FormattableFlags.LEFT_JUSTIFY).write(Cep.of("87030020"));
+		}
+		assertThat(out.size()).isEqualTo(100_000);
+		assertThat(new String(out.toByteArray(), 0, 9, StandardCharsets.US_ASCII)).isEqualTo("87030-020");
+	}
+
+	@Test(expectedExceptions = BufferOverflowException.class)
+	public void testBufferOverflow() {
+		DocumentWriter.to(ByteBuffer.allocate(10)).write(Cpf.of("18530249100"));
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testInvalidDigits() {
+		DocumentWriter.to(ByteBuffer.allocate(64)).writeCpfs(new long[] { 18530249101L }, 0, 1);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testNonAscii() {
+		DocumentWriter.to(ByteBuffer.allocate(64)).write("S\u00e3o Paulo");
+	}
+
+}
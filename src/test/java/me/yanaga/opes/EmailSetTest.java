@@ -0,0 +1,96 @@
+package me.yanaga.opes;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EmailSetTest {
+
+	@Test
+	public void testAdd() {
+		EmailSet set = new EmailSet();
+		assertThat(set.add(Email.of("edson@yanaga.me"))).isTrue();
+		assertThat(set.add(Email.of("edson@YANAGA.me"))).isFalse();
+		assertThat(set.add(Email.of("outro@yanaga.me"))).isTrue();
+		assertThat(set).hasSize(2);
+		assertThat(set.contains(Email.of("Edson@yanaga.me"))).isFalse();
+		assertThat(set.contains(Email.of("edson@Yanaga.Me"))).isTrue();
+		assertThat(set.contains("edson@yanaga.me")).isFalse();
+	}
+
+	@Test
+	public void testAddAll() {
+		EmailSet set = new EmailSet();
+		int added = set.addAll(Arrays.asList("edson.yanaga@gmail.com", "EdsonYanaga+x@googlemail.com", "invalido", null,
+				"a@b.com", "a@B.COM"), Email.Normalizacao.PROVEDOR);
+		assertThat(added).isEqualTo(2);
+		assertThat(set).containsOnly(Email.of("edsonyanaga@gmail.com"), Email.of("a@b.com"));
+	}
+
+	@Test
+	public void testGroupingByDominio() {
+		EmailSet set = new EmailSet();
+		set.addAll(Arrays.asList("a@x.com", "b@x.com", "c@X.com", "a@y.com"), Email.Normalizacao.DOMINIO);
+		assertThat(set.getDominios()).containsExactly("x.com", "y.com");
+		assertThat(set.getLocais("X.COM")).containsOnly("a", "b", "c");
+		assertThat(set.getLocais("dominio.inexistente")).isEmpty();
+		assertThat(set.countingByDominio()).containsEntry("x.com", 3).containsEntry("y.com", 1).hasSize(2);
+	}
+
+	@Test
+	public void testDominioCompartilhado() {
+		EmailSet set = new EmailSet();
+		set.addAll(Arrays.asList("a@Example.COM", "b@example.com"), Email.Normalizacao.DOMINIO);
+		Iterator<Email> iterator = set.iterator();
+		assertThat(iterator.next().getDominio()).isSameAs(iterator.next().getDominio());
+	}
+
+	@Test
+	public void testRemove() {
+		EmailSet set = new EmailSet();
+		set.add(Email.of("a@x.com"));
+		set.add(Email.of("b@x.com"));
+		assertThat(set.remove(Email.of("a@X.com"))).isTrue();
+		assertThat(set.remove(Email.of("a@x.com"))).isFalse();
+		Iterator<Email> iterator = set.iterator();
+		assertThat(iterator.next()).isEqualTo(Email.of("b@x.com"));
+		iterator.remove();
+		assertThat(iterator.hasNext()).isFalse();
+		assertThat(set).isEmpty();
+		assertThat(set.getDominios()).isEmpty();
+	}
+
+	@Test
+	public void testParallel() {
+		EmailSet set = IntStream.range(0, 100_000).parallel()
+				.mapToObj(i -> Email.of("user" + (i % 5_000) + "@dominio" + (i % 7) + ".com"))
+				.collect(OpesCollectors.toEmailSet());
+		assertThat(set).hasSize(35_000);
+		assertThat(set.getDominios()).hasSize(7);
+	}
+
+}
@@ -22,6 +22,14 @@ package me.yanaga.opes;
 
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.SplittableRandom;
+import java.util.regex.Pattern;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class EmailTest {
@@ -53,4 +61,100 @@ public class EmailTest {
 		assertThat(Email.of("edson@yanaga.yanaga").toString()).isEqualTo("edson@yanaga.yanaga");
 	}
 
+	@Test
+	public void testTryParse() {
+		assertThat(Email.tryParse("edson@yanaga.me").get()).isEqualTo(Email.of("edson@yanaga.me"));
+		assertThat(Email.tryParse("@yanaga.me").getError()).isEqualTo(ParseError.MALFORMED_EMAIL);
+		assertThat(Email.tryParse("user@").isValid()).isFalse();
+	}
+
+	@Test
+	public void testMatchesRegex() {
+		String atom = "[a-z0-9!#$%&'*+/=?^_`{|}~-]";
+		Pattern pattern = Pattern.compile("^" + atom + "+(\\." + atom + "+)*@(" + atom + "+(\\." + atom + "+)*|"
+				+ "\\[[0-9]{1,3}\\.[0-9]{1,3}\\.[0-9]{1,3}\\.[0-9]{1,3}\\])$", Pattern.CASE_INSENSITIVE);
+		String alphabet = "aZ09.@[]!~-_ \n\u00e9\u212a";
+		SplittableRandom random = new SplittableRandom(42);
+		for (int i = 0; i < 200_000; i++) {
+			int length = random.nextInt(14);
+			StringBuilder sb = new StringBuilder(length);
+			for (int j = 0; j < length; j++) {
+				sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+			}
+			String value = sb.toString();
+			assertThat(Email.isValid(value)).as(value).isEqualTo(pattern.matcher(value).matches());
+		}
+		for (String value : new String[] { "a@[1.2.3.4]", "a@[1.2.3.4", "a@[1.2.3]", "a@[1234.1.1.1]", "a@[1.2.3.4]]",
+				"a.b@c", "a..b@c", ".a@c", "a.@c", "a@c.", "a@.c", "A@B.C", "a@b@c", "a@", "@a", "a@[]", "a@[1.2.3.4].b" }) {
+			assertThat(Email.isValid(value)).as(value).isEqualTo(pattern.matcher(value).matches());
+		}
+	}
+
+	@Test(timeOut = 1_000)
+	public void testAdversarialInput() {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 50_000; i++) {
+			sb.append("a.");
+		}
+		sb.append("a@a");
+		for (int i = 0; i < 50_000; i++) {
+			sb.append(".a");
+		}
+		String almost = sb.toString() + "!.";
+		assertThat(Email.tryParse(almost).isValid()).isFalse();
+		assertThat(Email.tryParse(sb.toString()).isValid()).isTrue();
+	}
+
+	@Test
+	public void testDominioNormalizado() {
+		Email email = Email.of("Edson.Yanaga@Yanaga.ME");
+		assertThat(email.getLocal()).isEqualTo("Edson.Yanaga");
+		assertThat(email.getDominio()).isEqualTo("yanaga.me");
+		assertThat(email.toString()).isEqualTo("Edson.Yanaga@yanaga.me");
+		assertThat(email).isEqualTo(Email.of("Edson.Yanaga@yanaga.me"));
+		assertThat(email.hashCode()).isEqualTo(Email.of("Edson.Yanaga@yanaga.me").hashCode());
+		assertThat(email).isNotEqualTo(Email.of("edson.yanaga@yanaga.me"));
+		assertThat(Email.of("a@[10.0.0.1]").getDominio()).isEqualTo("[10.0.0.1]");
+	}
+
+	@Test
+	public void testDominioInternado() {
+		assertThat(Email.of("a@Example.COM").getDominio()).isSameAs(Email.of("b@example.com").getDominio());
+	}
+
+	@Test
+	public void testNormalizacaoProvedor() {
+		assertThat(Email.of("Edson.Yanaga+news@GoogleMail.com", Email.Normalizacao.PROVEDOR))
+				.isEqualTo(Email.of("edsonyanaga@gmail.com"));
+		assertThat(Email.of("Edson.Yanaga+news@Outlook.com", Email.Normalizacao.PROVEDOR).toString())
+				.isEqualTo("edson.yanaga@outlook.com");
+		assertThat(Email.of("+news@gmail.com", Email.Normalizacao.PROVEDOR).toString()).isEqualTo("+news@gmail.com");
+		assertThat(Email.of("Edson.Yanaga+news@yanaga.me", Email.Normalizacao.PROVEDOR).toString())
+				.isEqualTo("Edson.Yanaga+news@yanaga.me");
+		assertThat(Email.tryParse("Edson.Yanaga@Gmail.com", Email.Normalizacao.PROVEDOR).get().toString())
+				.isEqualTo("edsonyanaga@gmail.com");
+	}
+
+	@Test
+	public void testCompareTo() {
+		String[] values = { "a@b.c", "ab@a.c", "a@bc", "a.b@c", "a@b", "b@a", "A@a" };
+		for (String left : values) {
+			for (String right : values) {
+				assertThat(Integer.signum(Email.of(left).compareTo(Email.of(right))))
+						.as(left + " " + right).isEqualTo(Integer.signum(left.compareTo(right)));
+			}
+		}
+	}
+
+	@Test
+	public void testSerialization() throws IOException, ClassNotFoundException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+			oos.writeObject(Email.of("edson@Yanaga.me"));
+		}
+		try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()))) {
+			assertThat(ois.readObject()).isEqualTo(Email.of("edson@yanaga.me"));
+		}
+	}
+
 }
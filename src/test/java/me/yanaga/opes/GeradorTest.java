@@ -0,0 +1,112 @@
+package me.yanaga.opes;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GeradorTest {
+
+	@DataProvider
+	public Object[][] tipos() {
+		return new Object[][] {
+				{ Gerador.Tipo.CPF },
+				{ Gerador.Tipo.CNPJ },
+				{ Gerador.Tipo.CNS_DEFINITIVO },
+				{ Gerador.Tipo.CNS_PROVISORIO }
+		};
+	}
+
+	@Test(dataProvider = "tipos")
+	public void testLongsAreValid(Gerador.Tipo tipo) {
+		Gerador.of(42).longs(tipo, 100_000).forEach(digits -> {
+			switch (tipo) {
+				case CPF:
+					assertThat(Digits.isInRange(digits, 11) && Cpf.isValid(digits)).isTrue();
+					break;
+				case CNPJ:
+					assertThat(Digits.isInRange(digits, 14) && Cnpj.isValid(digits)).isTrue();
+					break;
+				case CNS_DEFINITIVO:
+					assertThat(Cns.isValid(digits)).isTrue();
+					assertThat(digits / 100_000_000_000_000L).isIn(1L, 2L);
+					break;
+				default:
+					assertThat(Cns.isValid(digits)).isTrue();
+					assertThat(digits / 100_000_000_000_000L).isIn(7L, 8L, 9L);
+			}
+		});
+	}
+
+	@Test(dataProvider = "tipos")
+	public void testUnicos(Gerador.Tipo tipo) {
+		long distinct = Gerador.of(7).unicos().longs(tipo, 200_000).parallel().distinct().count();
+		assertThat(distinct).isEqualTo(200_000);
+	}
+
+	@Test
+	public void testRegiaoFiscal() {
+		Gerador gerador = Gerador.of(1).comRegiaoFiscal(Uf.PR).unicos();
+		List<Cpf> cpfs = gerador.cpfs(50_000).collect(Collectors.toList());
+		assertThat(cpfs.stream().distinct().count()).isEqualTo(50_000);
+		for (Cpf cpf : cpfs) {
+			assertThat((cpf.toLong() / 100) % 10).isEqualTo(9);
+		}
+		assertThat(Gerador.of().comRegiaoFiscal(Uf.RS).cpfs(1_000)
+				.allMatch(cpf -> (cpf.toLong() / 100) % 10 == 0)).isTrue();
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testRegiaoFiscalExterior() {
+		Gerador.of().comRegiaoFiscal(Uf.EX);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testUnicosAcimaDoDominio() {
+		Gerador.of().comRegiaoFiscal(Uf.SP).unicos().longs(Gerador.Tipo.CPF, 100_000_000);
+	}
+
+	@Test
+	public void testSeed() {
+		assertThat(Gerador.of(42).cnpjs(100).collect(Collectors.toList()))
+				.isEqualTo(Gerador.of(42).cnpjs(100).collect(Collectors.toList()));
+		assertThat(Gerador.of(42).unicos().cnpjs(100).collect(Collectors.toList()))
+				.isEqualTo(Gerador.of(42).unicos().cnpjs(100).collect(Collectors.toList()));
+	}
+
+	@Test
+	public void testStrings() {
+		assertThat(Gerador.of().strings(Gerador.Tipo.CPF, 1_000, true)
+				.allMatch(s -> s.matches("\\d{3}\\.\\d{3}\\.\\d{3}-\\d{2}") && Cpf.of(s) != null)).isTrue();
+		assertThat(Gerador.of().strings(Gerador.Tipo.CNPJ, 1_000, false)
+				.allMatch(s -> s.matches("\\d{14}") && Cnpj.of(s) != null)).isTrue();
+		assertThat(Gerador.of().strings(Gerador.Tipo.CNS_PROVISORIO, 1_000, true)
+				.allMatch(s -> s.matches("\\d{3} \\d{4} \\d{4} \\d{4}") && Cns.of(s) != null)).isTrue();
+		assertThat(Gerador.of().cnsDefinitivos(1_000).count()).isEqualTo(1_000);
+		assertThat(Gerador.of().cnsProvisorios(1_000).count()).isEqualTo(1_000);
+	}
+
+}
@@ -0,0 +1,119 @@
+package me.yanaga.opes;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OpesCodecTest {
+
+	@DataProvider
+	public Object[][] documentos() {
+		return new Object[][] {
+				{ Cpf.of("046.428.359-03"), 6 },
+				{ Cnpj.of("19.861.350/0001-70"), 7 },
+				{ Cns.of("898 0010 3895 4985"), 8 },
+				{ Cep.of("01310-100"), 5 },
+				{ CpfCnpj.of("185.302.491-00"), 7 },
+				{ CpfCnpj.of("06.074.614/0001-02"), 7 }
+		};
+	}
+
+	@Test(dataProvider = "documentos")
+	public void testDataOutputRoundTrip(Object documento, int size) throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		OpesCodec.write(new DataOutputStream(baos), documento);
+		assertThat(baos.size()).isEqualTo(size);
+		assertThat(OpesCodec.sizeOf(documento)).isEqualTo(size);
+		Object read = OpesCodec.read(new DataInputStream(new ByteArrayInputStream(baos.toByteArray())));
+		assertThat(read).isEqualTo(documento);
+		assertThat(read.getClass()).isEqualTo(documento.getClass());
+	}
+
+	@Test(dataProvider = "documentos")
+	public void testByteBufferRoundTrip(Object documento, int size) {
+		ByteBuffer buffer = ByteBuffer.allocate(32);
+		OpesCodec.write(buffer, documento);
+		assertThat(buffer.position()).isEqualTo(size);
+		buffer.flip();
+		assertThat(OpesCodec.read(buffer, documento.getClass())).isEqualTo(documento);
+		assertThat(buffer.hasRemaining()).isFalse();
+	}
+
+	@Test(dataProvider = "documentos")
+	public void testSerialization(Object documento, int size) throws IOException, ClassNotFoundException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+			oos.writeObject(documento);
+		}
+		try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()))) {
+			assertThat(ois.readObject()).isEqualTo(documento);
+		}
+	}
+
+	@Test(expectedExceptions = InvalidObjectException.class)
+	public void testSerializationRejectsInvalidCheckDigits() throws IOException, ClassNotFoundException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+			oos.writeObject(Cpf.of("046.428.359-03"));
+		}
+		byte[] bytes = baos.toByteArray();
+		bytes[bytes.length - 2] ^= 1;
+		try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+			ois.readObject();
+		}
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testUnsupportedType() {
+		OpesCodec.write(ByteBuffer.allocate(32), "18530249100");
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testUnknownTag() {
+		OpesCodec.read(ByteBuffer.wrap(new byte[] { 9, 0, 0, 0, 0, 0 }));
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testOutOfRange() {
+		OpesCodec.read(ByteBuffer.wrap(new byte[] { OpesCodec.CEP, 0x7f, 0, 0, 0 }));
+	}
+
+	@Test(expectedExceptions = InvalidObjectException.class)
+	public void testUnexpectedType() throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		OpesCodec.write(new DataOutputStream(baos), Cpf.of("04642835903"));
+		OpesCodec.read(new DataInputStream(new ByteArrayInputStream(baos.toByteArray())), Cnpj.class);
+	}
+
+}
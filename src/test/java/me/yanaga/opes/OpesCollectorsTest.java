@@ -0,0 +1,114 @@
+package me.yanaga.opes;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OpesCollectorsTest {
+
+	private static final long[] CPFS = CpfSetTest.validCpfs(20_000);
+
+	@Test
+	public void testToCpfSet() {
+		CpfSet set = LongStream.of(CPFS).parallel().mapToObj(Cpf::ofLong).collect(OpesCollectors.toCpfSet());
+		assertThat(set).hasSize(CPFS.length);
+		for (long cpf : CPFS) {
+			assertThat(set.contains(cpf)).isTrue();
+		}
+		CpfSet sequential = LongStream.of(CPFS).limit(10).mapToObj(Cpf::ofLong).collect(OpesCollectors.toCpfSet());
+		assertThat(sequential).hasSize(10);
+	}
+
+	@Test
+	public void testToCnpjSet() {
+		CnpjSet set = Arrays.asList("19.861.350/0001-70", "06.074.614/0001-02", "19861350000170").stream()
+				.map(Cnpj::of)
+				.collect(OpesCollectors.toCnpjSet());
+		assertThat(set).containsOnly(Cnpj.of("19861350000170"), Cnpj.of("06074614000102"));
+	}
+
+	@Test
+	public void testPartitioningByType() {
+		List<CpfCnpj> documentos = LongStream.of(CPFS).parallel()
+				.mapToObj(cpf -> CpfCnpj.of(Cpf.ofLong(cpf).toString()))
+				.collect(Collectors.toList());
+		documentos.add(CpfCnpj.of("19.861.350/0001-70"));
+		documentos.add(CpfCnpj.of("06.074.614/0001-02"));
+		OpesCollectors.CpfCnpjPartition partition = documentos.parallelStream().collect(OpesCollectors.partitioningByType());
+		assertThat(partition.getCpfs()).hasSize(CPFS.length);
+		assertThat(partition.getCnpjs()).containsOnly(Cnpj.of("19861350000170"), Cnpj.of("06074614000102"));
+	}
+
+	@Test
+	public void testCountingByType() {
+		Map<TipoPessoa, Long> counts = Arrays.asList("185.302.491-00", "19.861.350/0001-70", "046.428.359-03").stream()
+				.map(CpfCnpj::of)
+				.collect(OpesCollectors.countingByType());
+		assertThat(counts).containsEntry(TipoPessoa.FISICA, 2L).containsEntry(TipoPessoa.JURIDICA, 1L);
+		assertThat(Arrays.<CpfCnpj>asList().stream().collect(OpesCollectors.countingByType()))
+				.containsEntry(TipoPessoa.FISICA, 0L).containsEntry(TipoPessoa.JURIDICA, 0L);
+	}
+
+	@Test
+	public void testCountingByUf() {
+		Map<Uf, Long> counts = Arrays.asList("SP", "PR", "SP", "RJ", "SP").parallelStream()
+				.collect(OpesCollectors.countingByUf(Uf::valueOf));
+		assertThat(counts).hasSize(3).containsEntry(Uf.SP, 3L).containsEntry(Uf.PR, 1L).containsEntry(Uf.RJ, 1L);
+		assertThat(counts.keySet()).containsExactly(Uf.PR, Uf.RJ, Uf.SP);
+	}
+
+	@Test
+	public void testGroupingByUf() {
+		List<String> municipios = Arrays.asList("SP:Campinas", "PR:Curitiba", "SP:Santos", "PR:Londrina", "AC:Xapuri");
+		Map<Uf, List<String>> grouped = municipios.stream()
+				.collect(OpesCollectors.groupingByUf(s -> Uf.valueOf(s.substring(0, 2))));
+		assertThat(grouped.get(Uf.SP)).containsExactly("SP:Campinas", "SP:Santos");
+		assertThat(grouped.get(Uf.PR)).containsExactly("PR:Curitiba", "PR:Londrina");
+		assertThat(grouped.get(Uf.AC)).containsExactly("AC:Xapuri");
+		assertThat(grouped).doesNotContainKey(Uf.RJ);
+
+		Map<Uf, Long> counted = municipios.parallelStream()
+				.collect(OpesCollectors.groupingByUf(s -> Uf.valueOf(s.substring(0, 2)), Collectors.counting()));
+		assertThat(counted).containsEntry(Uf.SP, 2L).containsEntry(Uf.PR, 2L).containsEntry(Uf.AC, 1L);
+	}
+
+	@Test(expectedExceptions = NullPointerException.class)
+	public void testCountingByUfNullClassification() {
+		Arrays.asList(1, 2).stream().collect(OpesCollectors.countingByUf(Uf::of));
+	}
+
+	@Test
+	public void testCountingByDominio() {
+		Map<String, Long> counted = Arrays.asList("a@x.com", "b@X.com", "a@x.com", "a@dominio.novo.com").parallelStream()
+				.map(Email::of)
+				.collect(OpesCollectors.countingByDominio());
+		assertThat(counted).containsEntry("x.com", 3L).containsEntry("dominio.novo.com", 1L).hasSize(2);
+	}
+
+}
@@ -0,0 +1,164 @@
+package me.yanaga.opes;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ParseCacheTest {
+
+	@Test
+	public void testInternsMaskedAndUnmasked() {
+		ParseCache<Cnpj> cache = ParseCache.of(Cnpj::of, 100);
+		Cnpj first = cache.parse("19.861.350/0001-70");
+		assertThat(first).isEqualTo(Cnpj.of("19861350000170"));
+		assertThat(cache.size()).isZero();
+		Cnpj second = cache.parse("19.861.350/0001-70");
+		assertThat(second).isEqualTo(first);
+		assertThat(cache.parse("19.861.350/0001-70")).isSameAs(second);
+		assertThat(cache.parse("19861350000170")).isSameAs(second);
+		assertThat(cache.stats().hitCount()).isEqualTo(2);
+		assertThat(cache.stats().missCount()).isEqualTo(2);
+		assertThat(cache.size()).isEqualTo(2);
+		cache.invalidateAll();
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testInvalidIsNotCached() {
+		ParseCache<Cpf> cache = ParseCache.of(Cpf::of, 100);
+		try {
+			cache.parse("185.302.491-01");
+		}
+		finally {
+			assertThat(cache.size()).isZero();
+		}
+	}
+
+	@Test
+	public void testCpfCnpj() {
+		ParseCache<CpfCnpj> cache = ParseCache.of(CpfCnpj::of, 100);
+		cache.parse("185.302.491-00");
+		assertThat(cache.parse("185.302.491-00")).isSameAs(cache.parse("18530249100"));
+		assertThat(cache.parse("19.861.350/0001-70").isCnpj()).isTrue();
+	}
+
+	@Test
+	public void testBoundedAndFrequencyAware() {
+		List<String> cpfs = Arrays.stream(CpfSetTest.validCpfs(5_000))
+				.mapToObj(cpf -> Cpf.ofLong(cpf).toString())
+				.collect(Collectors.toList());
+		ParseCache<Cpf> cache = ParseCache.of(Cpf::of, 1_024);
+		List<String> hot = cpfs.subList(0, 64);
+		for (int round = 0; round < 5; round++) {
+			hot.forEach(cache::parse);
+		}
+		cpfs.subList(64, cpfs.size()).forEach(cache::parse);
+		assertThat(cache.size()).isLessThanOrEqualTo(1_024);
+		long hits = cache.stats().hitCount();
+		hot.forEach(cache::parse);
+		assertThat(cache.stats().hitCount() - hits).isEqualTo(hot.size());
+	}
+
+	@Test
+	public void testScanDoesNotFlushHotSet() {
+		List<String> cpfs = Arrays.stream(CpfSetTest.validCpfs(1_064))
+				.mapToObj(cpf -> Cpf.ofLong(cpf).toString())
+				.collect(Collectors.toList());
+		ParseCache<Cpf> cache = ParseCache.of(Cpf::of, 256);
+		List<String> hot = cpfs.subList(0, 64);
+		for (int round = 0; round < 4; round++) {
+			hot.forEach(cache::parse);
+		}
+		List<String> scan = cpfs.subList(64, cpfs.size());
+		scan.forEach(cache::parse);
+		scan.forEach(cache::parse);
+		assertThat(cache.size()).isLessThanOrEqualTo(256);
+		long hits = cache.stats().hitCount();
+		hot.forEach(cache::parse);
+		assertThat(cache.stats().hitCount() - hits).isEqualTo(hot.size());
+	}
+
+	@Test
+	public void testMaskedFollowsCanonicalEviction() {
+		List<Cpf> cpfs = Arrays.stream(CpfSetTest.validCpfs(1_000)).mapToObj(Cpf::ofLong).collect(Collectors.toList());
+		Cpf cpf = cpfs.stream().filter(c -> segment(c.toString()) != segment(masked(c))).findFirst().get();
+		String evictor = cpfs.stream().map(Cpf::toString).filter(c -> !c.equals(cpf.toString()))
+				.filter(c -> segment(c) == segment(cpf.toString())).findFirst().get();
+		ParseCache<Cpf> cache = ParseCache.of(Cpf::of, 2);
+		cache.parse(masked(cpf));
+		Cpf first = cache.parse(masked(cpf));
+		assertThat(cache.size()).isEqualTo(2);
+		for (int i = 0; i < 3; i++) {
+			cache.parse(evictor);
+		}
+		Cpf canonical = null;
+		for (int i = 0; i < 3; i++) {
+			canonical = cache.parse(cpf.toString());
+		}
+		assertThat(cache.parse(cpf.toString())).isSameAs(canonical);
+		assertThat(canonical).isNotSameAs(first);
+		assertThat(cache.parse(masked(cpf))).isSameAs(canonical);
+	}
+
+	private static String masked(Cpf cpf) {
+		return cpf.appendTo(new StringBuilder(), true).toString();
+	}
+
+	private static int segment(String key) {
+		int hash = key.hashCode();
+		return (hash ^ (hash >>> 16)) & 1;
+	}
+
+	@Test
+	public void testConcurrentParse() {
+		ParseCache<Cpf> cache = ParseCache.of(Cpf::of, 1_000);
+		List<Cpf> parsed = IntStream.range(0, 10_000).parallel()
+				.mapToObj(i -> cache.parse(i % 2 == 0 ? "185.302.491-00" : "18530249100"))
+				.collect(Collectors.toList());
+		assertThat(parsed.stream().distinct().count()).isEqualTo(1);
+		assertThat(cache.stats().requestCount()).isEqualTo(10_000);
+	}
+
+	@Test
+	public void testFrequencySketch() {
+		FrequencySketch sketch = new FrequencySketch(512);
+		for (int i = 0; i < 20; i++) {
+			sketch.increment("hot");
+		}
+		sketch.increment("warm");
+		sketch.increment("warm");
+		assertThat(sketch.frequency("hot")).isEqualTo(15);
+		assertThat(sketch.frequency("warm")).isGreaterThanOrEqualTo(2);
+		assertThat(sketch.frequency("cold")).isLessThanOrEqualTo(1);
+		for (int i = 0; i < 5_120; i++) {
+			sketch.increment(i);
+		}
+		assertThat(sketch.frequency("hot")).isLessThan(15);
+	}
+
+}
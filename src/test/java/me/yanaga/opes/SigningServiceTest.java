@@ -0,0 +1,275 @@
+package me.yanaga.opes;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.xml.sax.InputSource;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.lang.reflect.Proxy;
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SigningServiceTest {
+
+	private static final char[] PASSWORD = { 'o', 'p', 'e', 's' };
+
+	private CertificadoDigital certificadoDigital;
+
+	static CertificadoDigital autoAssinado() {
+		try {
+			KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+			generator.initialize(1024);
+			KeyPair keyPair = generator.generateKeyPair();
+			X500Name name = new X500Name("CN=opes, O=opes, C=BR");
+			Instant now = Instant.now();
+			X509Certificate certificate = new JcaX509CertificateConverter().getCertificate(
+					new JcaX509v3CertificateBuilder(name, BigInteger.ONE, Date.from(now),
+							Date.from(now.plus(Duration.ofDays(1))), name, keyPair.getPublic())
+							.build(new JcaContentSignerBuilder("SHA256withRSA").build(keyPair.getPrivate())));
+			KeyStore keyStore = KeyStore.getInstance("pkcs12");
+			keyStore.load(null, null);
+			keyStore.setKeyEntry("opes", keyPair.getPrivate(), PASSWORD, new Certificate[] { certificate });
+			ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			keyStore.store(baos, PASSWORD);
+			return CertificadoDigital.of(new ByteArrayInputStream(baos.toByteArray()), PASSWORD);
+		}
+		catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	static String notaFiscalXml(int numero) {
+		return "<NFe xmlns=\"http://www.portalfiscal.inf.br/nfe\"><infNFe Id=\"NFe" + numero
+				+ "\" versao=\"3.10\"><ide><nNF>" + numero + "</nNF><natOp>VENDA &amp; SERVI\u00c7O</natOp></ide>"
+				+ "<emit><CNPJ>19861350000170</CNPJ></emit></infNFe></NFe>";
+	}
+
+	static Document notaFiscal(int numero) {
+		try {
+			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+			factory.setNamespaceAware(true);
+			return factory.newDocumentBuilder().parse(new InputSource(new StringReader(notaFiscalXml(numero))));
+		}
+		catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@BeforeClass
+	public void setup() {
+		certificadoDigital = autoAssinado();
+	}
+
+	@Test
+	public void testSubmit() throws Exception {
+		try (SigningService service = SigningService.of(certificadoDigital, 4, 8)) {
+			List<CompletableFuture<Document>> futures = new ArrayList<>();
+			for (int i = 0; i < 32; i++) {
+				futures.add(service.submit(notaFiscal(i)));
+			}
+			for (CompletableFuture<Document> future : futures) {
+				assertThat(certificadoDigital.validate(future.get(10, TimeUnit.SECONDS))).isTrue();
+			}
+			assertThat(service.getCompleted()).isEqualTo(32);
+			assertThat(service.getFailed()).isEqualTo(0);
+			assertThat(service.getQueueDepth()).isEqualTo(0);
+			assertThat(service.getInFlight()).isEqualTo(0);
+			assertThat(service.getLatency(50).compareTo(Duration.ZERO) > 0).isTrue();
+			assertThat(service.getLatency(99).compareTo(service.getLatency(50)) >= 0).isTrue();
+		}
+	}
+
+	@Test
+	public void testExecutor() throws Exception {
+		ExecutorService executor = Executors.newCachedThreadPool();
+		SigningService service = SigningService.of(certificadoDigital, 2, 4, executor);
+		assertThat(certificadoDigital.validate(service.submit(notaFiscal(1)).get(10, TimeUnit.SECONDS))).isTrue();
+		service.close();
+		assertThat(service.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(executor.isShutdown()).isFalse();
+		executor.shutdown();
+	}
+
+	@Test
+	public void testFailure() throws Exception {
+		try (SigningService service = SigningService.of(certificadoDigital, 1, 1)) {
+			Document document = notaFiscal(1);
+			document.getDocumentElement().removeChild(document.getDocumentElement().getFirstChild());
+			CompletableFuture<Document> future = service.submit(document);
+			try {
+				future.get(10, TimeUnit.SECONDS);
+				assertThat(false).isTrue();
+			}
+			catch (ExecutionException ex) {
+				assertThat(ex.getCause()).isInstanceOf(IllegalArgumentException.class);
+			}
+			assertThat(service.getFailed()).isEqualTo(1);
+		}
+	}
+
+	@Test
+	public void testBackpressure() throws Exception {
+		CountDownLatch latch = new CountDownLatch(1);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		executor.execute(() -> await(latch));
+		SigningService service = SigningService.of(certificadoDigital, 1, 1, executor);
+		CompletableFuture<Document> future = service.submit(notaFiscal(1));
+		assertThat(service.getQueueDepth()).isEqualTo(1);
+		try {
+			service.submit(notaFiscal(2), 10, TimeUnit.MILLISECONDS);
+			assertThat(false).isTrue();
+		}
+		catch (RejectedExecutionException ex) {
+			assertThat(ex).hasMessage("Fila de assinatura cheia.");
+		}
+		service.close();
+		assertThat(service.getQueueDepth()).isEqualTo(1);
+		latch.countDown();
+		assertThat(service.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(certificadoDigital.validate(future.get(10, TimeUnit.SECONDS))).isTrue();
+		assertThat(service.getCompleted()).isEqualTo(1);
+		assertThat(service.getQueueDepth()).isEqualTo(0);
+		executor.shutdown();
+	}
+
+	@Test
+	public void testCloseWhileInterrupted() throws Exception {
+		SigningService service = SigningService.of(certificadoDigital, 2, 1);
+		Thread.currentThread().interrupt();
+		service.close();
+		assertThat(Thread.interrupted()).isTrue();
+		assertThat(service.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	public void testErrorKeepsWorker() throws Exception {
+		try (SigningService service = SigningService.of(certificadoDigital, 1, 2)) {
+			CompletableFuture<Element> failure = service.submit(failing(new StackOverflowError()));
+			try {
+				failure.get(10, TimeUnit.SECONDS);
+				assertThat(false).isTrue();
+			}
+			catch (ExecutionException ex) {
+				assertThat(ex.getCause()).isInstanceOf(StackOverflowError.class);
+			}
+			assertThat(certificadoDigital.validate(service.submit(notaFiscal(1)).get(10, TimeUnit.SECONDS))).isTrue();
+			assertThat(service.getFailed()).isEqualTo(1);
+		}
+	}
+
+	@Test
+	public void testWorkerDeathFailsQueued() throws Exception {
+		CountDownLatch latch = new CountDownLatch(1);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		executor.execute(() -> await(latch));
+		SigningService service = SigningService.of(certificadoDigital, 1, 2, executor);
+		service.submit(failing(new ThreadDeath()));
+		CompletableFuture<Document> queued = service.submit(notaFiscal(1));
+		latch.countDown();
+		try {
+			queued.get(10, TimeUnit.SECONDS);
+			assertThat(false).isTrue();
+		}
+		catch (ExecutionException ex) {
+			assertThat(ex.getCause()).isInstanceOf(RejectedExecutionException.class);
+		}
+		assertThat(service.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(service.getQueueDepth()).isEqualTo(0);
+		try {
+			service.submit(notaFiscal(2));
+			assertThat(false).isTrue();
+		}
+		catch (RejectedExecutionException ex) {
+			assertThat(ex).hasMessage("Servi\u00e7o de assinatura encerrado.");
+		}
+		service.close();
+		executor.shutdown();
+	}
+
+	@Test(expectedExceptions = RejectedExecutionException.class)
+	public void testSubmitAfterClose() throws Exception {
+		SigningService service = SigningService.of(certificadoDigital, 1, 1);
+		service.close();
+		service.submit(notaFiscal(1));
+	}
+
+	@Test
+	public void testLatencyHistogram() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (long value = 1; value <= 1_000; value++) {
+			histogram.record(value * 1_000);
+		}
+		assertThat(histogram.percentile(50)).isBetween(500_000L, 500_000L * 9 / 8);
+		assertThat(histogram.percentile(99)).isBetween(990_000L, 990_000L * 9 / 8);
+		assertThat(histogram.percentile(100)).isBetween(1_000_000L, 1_000_000L * 9 / 8);
+		for (long value : new long[] { 0, 7, 8, 15, 16, 1_000_003, Long.MAX_VALUE }) {
+			assertThat(LatencyHistogram.upperBound(LatencyHistogram.index(value))).isGreaterThanOrEqualTo(value);
+		}
+		histogram.reset();
+		assertThat(histogram.percentile(50)).isEqualTo(0);
+	}
+
+	private static Element failing(Throwable error) {
+		return (Element) Proxy.newProxyInstance(Element.class.getClassLoader(), new Class<?>[] { Element.class },
+				(proxy, method, args) -> {
+					throw error;
+				});
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
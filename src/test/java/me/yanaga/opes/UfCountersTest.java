@@ -0,0 +1,63 @@
+package me.yanaga.opes;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.testng.annotations.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UfCountersTest {
+
+	@Test
+	public void testIncrement() {
+		UfCounters counters = new UfCounters();
+		IntStream.range(0, 100_000).parallel().forEach(i -> counters.increment(i % 2 == 0 ? Uf.SP : Uf.PR));
+		counters.add(Uf.AC, 5);
+		assertThat(counters.sum(Uf.SP)).isEqualTo(50_000);
+		assertThat(counters.sum(Uf.PR)).isEqualTo(50_000);
+		assertThat(counters.sum(Uf.RJ)).isEqualTo(0);
+		assertThat(counters.sum()).isEqualTo(100_005);
+		assertThat(counters.toMap()).containsEntry(Uf.SP, 50_000L).containsEntry(Uf.AC, 5L).hasSize(3);
+		assertThat(counters.toMapThenReset()).hasSize(3);
+		assertThat(counters.sum()).isEqualTo(0);
+		assertThat(counters.toMap()).isEmpty();
+	}
+
+	@Test
+	public void testAccumulator() {
+		UfAccumulator accumulator = new UfAccumulator();
+		IntStream.range(0, 1_000).parallel().forEach(i -> accumulator.add(Uf.MG, 0.5));
+		accumulator.add(Uf.BA, 2.25);
+		assertThat(accumulator.sum(Uf.MG)).isEqualTo(500.0);
+		assertThat(accumulator.sum()).isEqualTo(502.25);
+		assertThat(accumulator.toMap()).containsEntry(Uf.BA, 2.25).hasSize(2);
+		accumulator.reset();
+		assertThat(accumulator.sum()).isEqualTo(0.0);
+	}
+
+	@Test(expectedExceptions = NullPointerException.class)
+	public void testIncrementNull() {
+		new UfCounters().increment(null);
+	}
+
+}
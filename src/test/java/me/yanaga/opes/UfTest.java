@@ -0,0 +1,55 @@
+package me.yanaga.opes;
+
+/*
+ * #%L
+ * opes
+ * %%
+ * Copyright (C) 2015 Edson Yanaga
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.testng.annotations.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UfTest {
+
+	@Test
+	public void testOf() {
+		for (Uf uf : Uf.values()) {
+			assertThat(Uf.of(uf.getCodigoIbge())).isSameAs(uf);
+			assertThat(Uf.of(Integer.valueOf(uf.getCodigoIbge()))).isSameAs(uf);
+		}
+		assertThat(Uf.of(10)).isNull();
+		assertThat(Uf.of(-1)).isNull();
+		assertThat(Uf.of(54)).isNull();
+		assertThat(Uf.of((Integer) null)).isNull();
+	}
+
+	@Test
+	public void testOfSigla() {
+		for (Uf uf : Uf.values()) {
+			assertThat(Uf.ofSigla(uf.name())).isSameAs(uf);
+			assertThat(Uf.ofSigla(uf.name().toLowerCase())).isSameAs(uf);
+		}
+		assertThat(Uf.ofSigla(new StringBuilder("pR"))).isSameAs(Uf.PR);
+		assertThat(Uf.ofSigla("XX")).isNull();
+		assertThat(Uf.ofSigla("P")).isNull();
+		assertThat(Uf.ofSigla("PRR")).isNull();
+		assertThat(Uf.ofSigla("P1")).isNull();
+		assertThat(Uf.ofSigla(null)).isNull();
+	}
+
+}